@@ -0,0 +1,88 @@
+/*
+ * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exactpro.th2.act;
+
+import com.exactpro.th2.common.event.bean.TreeTable;
+import com.exactpro.th2.common.grpc.ListValue;
+import com.exactpro.th2.common.grpc.Message;
+import com.exactpro.th2.common.grpc.Value;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversion of wide and deeply nested messages to event tree tables.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EventUtilsBenchmark {
+
+	/** Number of simple fields on every level */
+	@Param({"10", "200"})
+	public int width;
+
+	/** Number of nested message levels, every level also contains a list of two messages */
+	@Param({"1", "4"})
+	public int depth;
+
+	private final ObjectMapper mapper = new ObjectMapper();
+	private Message message;
+
+	@Setup
+	public void setUp() {
+		message = createMessage(depth);
+	}
+
+	private Message createMessage(int level) {
+		Message.Builder builder = Message.newBuilder();
+		for (int i = 0; i < width; i++) {
+			builder.putFields("field" + i, Value.newBuilder().setSimpleValue("value" + i).build());
+		}
+		if (level > 0) {
+			Message nested = createMessage(level - 1);
+			builder.putFields("nested", Value.newBuilder().setMessageValue(nested).build());
+			builder.putFields("group", Value.newBuilder().setListValue(ListValue.newBuilder()
+					.addValues(Value.newBuilder().setMessageValue(nested))
+					.addValues(Value.newBuilder().setMessageValue(nested))).build());
+		}
+		return builder.build();
+	}
+
+	@Benchmark
+	public TreeTable toTreeTable() {
+		return EventUtils.toTreeTable(message);
+	}
+
+	@Benchmark
+	public byte[] treeTableBody() throws JsonProcessingException {
+		return mapper.writeValueAsBytes(EventUtils.toTreeTable(message));
+	}
+
+	@Benchmark
+	public byte[] streamingTreeTableBody() throws JsonProcessingException {
+		return mapper.writeValueAsBytes(EventUtils.toTreeTableBody(message, Integer.MAX_VALUE, Integer.MAX_VALUE, "..."));
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exactpro.th2.act.actions;
+
+import com.exactpro.th2.act.ProtoJsonWriter;
+import com.exactpro.th2.act.grpc.NewOrderSingleParams;
+import com.exactpro.th2.act.grpc.NewOrderSingleParams.NewOrderSingleBody;
+import com.exactpro.th2.act.grpc.NewOrderSingleParams.NoPartyID;
+import com.exactpro.th2.act.grpc.NewOrderSingleParams.TradingParty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request conversion done by {@link SendNewOrderSingle} before any hand call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NewOrderSingleBenchmark {
+
+	@Param({"0", "4", "32"})
+	public int partyCount;
+
+	/** Length of string field values */
+	@Param({"8", "256"})
+	public int valueLength;
+
+	private NewOrderSingleParams params;
+
+	@Setup
+	public void setUp() {
+		String value = "X".repeat(valueLength);
+		TradingParty.Builder tradingParty = TradingParty.newBuilder();
+		for (int i = 0; i < partyCount; i++) {
+			tradingParty.addNoPartyIDs(NoPartyID.newBuilder()
+					.setPartyID(value + i)
+					.setPartyIDSource("D")
+					.setPartyRole(76));
+		}
+		params = NewOrderSingleParams.newBuilder()
+				.setSession("fix-demo-server1")
+				.setDictionary("FIX_5_0")
+				.setMessageType("NewOrderSingle")
+				.setMessage(NewOrderSingleBody.newBuilder()
+						.setSecurityID(value)
+						.setSecurityIDSource("8")
+						.setOrdType("2")
+						.setSide("1")
+						.setOrderQty(100)
+						.setDisplayQty(100)
+						.setPrice(34)
+						.setClOrdID(value)
+						.setSecondaryClOrdID(value)
+						.setAccountType(1)
+						.setTransactTime("2021-01-01T00:00:00")
+						.setTradingParty(tradingParty))
+				.build();
+	}
+
+	@Benchmark
+	public String messageJson() throws IOException {
+		return ProtoJsonWriter.toJson(params.getMessage());
+	}
+
+	@Benchmark
+	public Map<String, String> bodyParams() {
+		return SendNewOrderSingle.getMgsBodyParamsMap(params.getMessage(), "");
+	}
+
+	@Benchmark
+	public Map<String, String> requestParams() {
+		return SendNewOrderSingle.getRequestParamsMap(params);
+	}
+}
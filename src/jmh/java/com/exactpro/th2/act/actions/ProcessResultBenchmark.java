@@ -0,0 +1,70 @@
+/*
+ * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exactpro.th2.act.actions;
+
+import com.exactpro.th2.act.ActResult;
+import com.exactpro.th2.act.grpc.RhBatchResponseDemo;
+import com.exactpro.th2.common.grpc.Checkpoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building of gRPC response from act result, see {@link TestUIAction#processResult}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProcessResultBenchmark {
+
+	@Param({"1", "32"})
+	public int dataSize;
+
+	/** Length of data values, extracted messages are usually several kilobytes */
+	@Param({"64", "4096"})
+	public int valueLength;
+
+	private ActResult actResult;
+	private Checkpoint checkpoint;
+
+	@Setup
+	public void setUp() {
+		Map<String, String> data = new LinkedHashMap<>();
+		String value = "8=FIX.4.4|".repeat(Math.max(1, valueLength / 10));
+		for (int i = 0; i < dataSize; i++) {
+			data.put("result" + i, value);
+		}
+		actResult = new ActResult();
+		actResult.setData(data);
+		actResult.setStatusInfo("message extracted");
+		actResult.setScriptStatus(ActResult.ActExecutionStatus.SUCCESS);
+		checkpoint = Checkpoint.newBuilder().setId("checkpoint").build();
+	}
+
+	@Benchmark
+	public RhBatchResponseDemo buildResponse() {
+		return TestUIAction.buildResponse(actResult, checkpoint);
+	}
+}
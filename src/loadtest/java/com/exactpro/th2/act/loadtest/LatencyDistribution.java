@@ -0,0 +1,78 @@
+/*
+ * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exactpro.th2.act.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Latency of stub services. Parsed from specification:
+ * <ul>
+ *     <li>{@code fixed:<ms>}</li>
+ *     <li>{@code uniform:<min ms>:<max ms>}</li>
+ *     <li>{@code lognormal:<median ms>:<sigma>}</li>
+ * </ul>
+ */
+abstract class LatencyDistribution {
+
+	abstract long sample();
+
+	static LatencyDistribution parse(String specification) {
+		String[] parts = specification.split(":");
+		switch (parts[0]) {
+			case "fixed":
+				checkArguments(specification, parts, 2);
+				long value = Long.parseLong(parts[1]);
+				return of(specification, () -> value);
+			case "uniform":
+				checkArguments(specification, parts, 3);
+				long min = Long.parseLong(parts[1]);
+				long max = Long.parseLong(parts[2]);
+				return of(specification, () -> ThreadLocalRandom.current().nextLong(min, max + 1));
+			case "lognormal":
+				checkArguments(specification, parts, 3);
+				double mu = Math.log(Double.parseDouble(parts[1]));
+				double sigma = Double.parseDouble(parts[2]);
+				return of(specification, () -> Math.round(Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian())));
+			default:
+				throw new IllegalArgumentException("Unknown latency distribution: " + specification);
+		}
+	}
+
+	private static void checkArguments(String specification, String[] parts, int expected) {
+		if (parts.length != expected) {
+			throw new IllegalArgumentException("Invalid latency distribution: " + specification);
+		}
+	}
+
+	private static LatencyDistribution of(String specification, Sampler sampler) {
+		return new LatencyDistribution() {
+			@Override
+			long sample() {
+				return Math.max(0, sampler.sample());
+			}
+
+			@Override
+			public String toString() {
+				return specification;
+			}
+		};
+	}
+
+	@FunctionalInterface
+	private interface Sampler {
+		long sample();
+	}
+}
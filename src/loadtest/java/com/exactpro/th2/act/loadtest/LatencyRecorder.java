@@ -0,0 +1,74 @@
+/*
+ * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exactpro.th2.act.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects latencies and statuses of requests of one RPC.
+ */
+class LatencyRecorder {
+
+	private final String name;
+	private final Map<String, LongAdder> statuses = new ConcurrentHashMap<>();
+	private long[] latencies = new long[1024];
+	private int size;
+
+	LatencyRecorder(String name) {
+		this.name = name;
+	}
+
+	synchronized void record(long latencyNanos, String status) {
+		if (size == latencies.length) {
+			latencies = Arrays.copyOf(latencies, size * 2);
+		}
+		latencies[size++] = latencyNanos;
+		statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+	}
+
+	synchronized int getCount() {
+		return size;
+	}
+
+	synchronized String report(double durationSeconds) {
+		long[] sorted = Arrays.copyOf(latencies, size);
+		Arrays.sort(sorted);
+		StringBuilder sb = new StringBuilder(name).append(": ")
+				.append(size).append(" requests, ")
+				.append(String.format("%.1f", size / durationSeconds)).append(" req/s");
+		if (size > 0) {
+			sb.append(", latency ms p50=").append(percentile(sorted, 0.5))
+					.append(" p90=").append(percentile(sorted, 0.9))
+					.append(" p99=").append(percentile(sorted, 0.99))
+					.append(" p99.9=").append(percentile(sorted, 0.999))
+					.append(" max=").append(toMillis(sorted[sorted.length - 1]));
+		}
+		sb.append(", statuses ").append(statuses);
+		return sb.toString();
+	}
+
+	private static String percentile(long[] sorted, double percentile) {
+		int index = (int) Math.ceil(percentile * sorted.length) - 1;
+		return toMillis(sorted[Math.max(0, index)]);
+	}
+
+	private static String toMillis(long nanos) {
+		return String.format("%.1f", nanos / 1_000_000.0);
+	}
+}
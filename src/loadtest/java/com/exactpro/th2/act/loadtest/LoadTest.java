@@ -0,0 +1,310 @@
+/*
+ * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exactpro.th2.act.loadtest;
+
+import com.exactpro.th2.act.ActionDispatcher;
+import com.exactpro.th2.act.EventPublisher;
+import com.exactpro.th2.act.HandWinAct;
+import com.exactpro.th2.act.TestUIActConfiguration;
+import com.exactpro.th2.act.TestUIActConnections;
+import com.exactpro.th2.act.framework.TestUIFramework;
+import com.exactpro.th2.act.grpc.NewOrderSingleParams;
+import com.exactpro.th2.act.grpc.RhBatchResponseDemo;
+import com.exactpro.th2.act.grpc.RptViewerDetails;
+import com.exactpro.th2.act.grpc.RptViewerSearchDetails;
+import com.exactpro.th2.act.grpc.UiFrameWorkHandWebActGrpc;
+import com.exactpro.th2.act.grpc.hand.RhSessionID;
+import com.exactpro.th2.act.grpc.hand.RhTargetServer;
+import com.exactpro.th2.check1.grpc.Check1Service;
+import com.exactpro.th2.common.schema.factory.CommonFactory;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Drives the act against stubs of th2-hand and check1 at a target rate and reports throughput,
+ * latency percentiles and resource usage. Events are counted by {@link StubEventRouter} instead of publishing to RabbitMQ. Options are passed as {@code --name=value}:
+ * <ul>
+ *     <li>{@code rate} - requests per second (default: 50)</li>
+ *     <li>{@code clients} - number of clients, each one uses its own hand session (default: 16)</li>
+ *     <li>{@code duration} - test duration in seconds (default: 60)</li>
+ *     <li>{@code mix} - weights of RPCs (default: {@code send=1,extract=1,find=1})</li>
+ *     <li>{@code hand-latency} - latency of hand batches (default: {@code lognormal:200:0.5}),
+ *     see {@link LatencyDistribution}</li>
+ *     <li>{@code check1-latency} - latency of checkpoint creation (default: {@code fixed:20})</li>
+ *     <li>{@code action-threads}, {@code result-cache-size}, {@code screenshot-policy} - act configuration</li>
+ * </ul>
+ */
+public class LoadTest {
+
+	private static final Logger logger = LoggerFactory.getLogger(LoadTest.class);
+
+	private static final String RPT_VIEWER_URL = "https://localhost/rpt-viewer/?eventId=stub-1";
+
+	private final Map<String, String> options;
+	private final Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+	private final AtomicLong inFlight = new AtomicLong();
+	private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+	private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+	private volatile long maxHeapUsed;
+
+	private LoadTest(Map<String, String> options) {
+		this.options = options;
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = new HashMap<>();
+		for (String arg : args) {
+			if (!arg.startsWith("--") || !arg.contains("=")) {
+				throw new IllegalArgumentException("Option should be passed as --name=value: " + arg);
+			}
+			int index = arg.indexOf('=');
+			options.put(arg.substring(2, index), arg.substring(index + 1));
+		}
+		new LoadTest(options).run();
+	}
+
+	private String option(String name, String defaultValue) {
+		return options.getOrDefault(name, defaultValue);
+	}
+
+	private void run() throws Exception {
+		Deque<AutoCloseable> resources = new ConcurrentLinkedDeque<>();
+		ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(4);
+		resources.push(scheduler::shutdownNow);
+		try {
+			StubHandService hand = new StubHandService(LatencyDistribution.parse(option("hand-latency", "lognormal:200:0.5")), scheduler);
+			Server handServer = ServerBuilder.forPort(0).addService(hand).build().start();
+			resources.push(handServer::shutdownNow);
+			Server check1Server = ServerBuilder.forPort(0)
+					.addService(new StubCheck1Service(LatencyDistribution.parse(option("check1-latency", "fixed:20")), scheduler))
+					.build().start();
+			resources.push(check1Server::shutdownNow);
+
+			Path configDir = writeConfiguration(handServer.getPort(), check1Server.getPort());
+			CommonFactory factory = CommonFactory.createFromArguments("-c", configDir.toString());
+			resources.push(factory);
+
+			StubEventRouter eventRouter = new StubEventRouter();
+			TestUIFramework framework = new TestUIFramework(new TestUIActConnections(factory));
+			TestUIActConfiguration configuration = framework.getActConfiguration();
+			framework.setEventRouter(eventRouter.createRouter());
+			if (configuration.isAsyncEvents()) {
+				EventPublisher eventPublisher = new EventPublisher(eventRouter.createRouter(), configuration.getEventBatchSize(),
+						configuration.getEventFlushInterval(), configuration.getEventQueueSize());
+				resources.push(eventPublisher);
+				framework.setEventPublisher(eventPublisher);
+			}
+			resources.push(framework::closeRemoteCalls);
+			ActionDispatcher dispatcher = new ActionDispatcher(configuration.getActionThreads(),
+					configuration.getMaxQueuedActions(), configuration.getMaxQueuedActionsPerSession());
+			resources.push(dispatcher);
+
+			String serverName = InProcessServerBuilder.generateName();
+			Server actServer = InProcessServerBuilder.forName(serverName)
+					.addService(new HandWinAct(factory.getGrpcRouter().getService(Check1Service.class), framework, dispatcher))
+					.build().start();
+			resources.push(actServer::shutdownNow);
+			ManagedChannel channel = InProcessChannelBuilder.forName(serverName).build();
+			resources.push(channel::shutdownNow);
+
+			runLoad(channel, scheduler);
+			logger.info("Hand batches executed: {}, event batches sent: {} ({} events)", hand.getBatches(),
+					eventRouter.getBatches(), eventRouter.getEvents());
+		} finally {
+			while (!resources.isEmpty()) {
+				try {
+					resources.pop().close();
+				} catch (Exception e) {
+					logger.error("Cannot close resource", e);
+				}
+			}
+		}
+	}
+
+	private void runLoad(ManagedChannel channel, ScheduledExecutorService scheduler) throws InterruptedException {
+		int clients = Integer.parseInt(option("clients", "16"));
+		double rate = Double.parseDouble(option("rate", "50"));
+		long durationSeconds = Long.parseLong(option("duration", "60"));
+
+		List<RhSessionID> sessions = new ArrayList<>();
+		UiFrameWorkHandWebActGrpc.UiFrameWorkHandWebActBlockingStub blockingStub = UiFrameWorkHandWebActGrpc.newBlockingStub(channel);
+		for (int i = 0; i < clients; i++) {
+			sessions.add(blockingStub.register(RhTargetServer.newBuilder().setTarget("stub").build()));
+		}
+
+		List<Request> requests = createRequestMix(UiFrameWorkHandWebActGrpc.newStub(channel));
+		AtomicInteger counter = new AtomicInteger();
+		long periodNanos = (long) (1_000_000_000 / rate);
+		logger.info("Starting load: {} req/s, {} clients, {} s", rate, clients, durationSeconds);
+
+		long started = System.nanoTime();
+		var generator = scheduler.scheduleAtFixedRate(() -> {
+			int index = counter.getAndIncrement();
+			send(requests.get(index % requests.size()), sessions.get(index % sessions.size()));
+		}, 0, periodNanos, TimeUnit.NANOSECONDS);
+		var monitor = scheduler.scheduleAtFixedRate(this::printProgress, 5, 5, TimeUnit.SECONDS);
+
+		TimeUnit.SECONDS.sleep(durationSeconds);
+		generator.cancel(false);
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+		while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+			TimeUnit.MILLISECONDS.sleep(100);
+		}
+		monitor.cancel(false);
+		double elapsed = (System.nanoTime() - started) / 1e9;
+
+		for (RhSessionID session : sessions) {
+			blockingStub.unregister(session);
+		}
+
+		logger.info("Load test finished in {} s, not completed requests: {}", String.format("%.1f", elapsed), inFlight.get());
+		recorders.values().forEach(recorder -> logger.info(recorder.report(elapsed)));
+		logger.info("Peak threads: {}, max heap used: {} MB", threads.getPeakThreadCount(), maxHeapUsed / (1024 * 1024));
+	}
+
+	private void printProgress() {
+		long heapUsed = memory.getHeapMemoryUsage().getUsed();
+		maxHeapUsed = Math.max(maxHeapUsed, heapUsed);
+		int completed = recorders.values().stream().mapToInt(LatencyRecorder::getCount).sum();
+		logger.info("Completed: {}, in flight: {}, threads: {}, heap used: {} MB",
+				completed, inFlight.get(), threads.getThreadCount(), heapUsed / (1024 * 1024));
+	}
+
+	private List<Request> createRequestMix(UiFrameWorkHandWebActGrpc.UiFrameWorkHandWebActStub stub) {
+		Map<String, BiConsumer<RhSessionID, StreamObserver<RhBatchResponseDemo>>> calls = new LinkedHashMap<>();
+		calls.put("send", (session, observer) -> stub.sendNewOrderSingleGui(NewOrderSingleParams.newBuilder()
+				.setSessionID(session)
+				.setSession("fix-demo-server1")
+				.setDictionary("FIX_5_0")
+				.setMessageType("NewOrderSingle")
+				.setMessage(NewOrderSingleParams.NewOrderSingleBody.newBuilder()
+						.setSecurityID("INSTR1")
+						.setSecurityIDSource("8")
+						.setOrdType("2")
+						.setSide("1")
+						.setOrderQty(100)
+						.setPrice(34)
+						.setClOrdID("load-test"))
+				.build(), observer));
+		calls.put("extract", (session, observer) -> stub.extractSentMessageGui(RptViewerDetails.newBuilder()
+				.setSessionID(session)
+				.setUrl(RPT_VIEWER_URL)
+				.build(), observer));
+		calls.put("find", (session, observer) -> stub.findMessageGui(RptViewerSearchDetails.newBuilder()
+				.setSessionID(session)
+				.setUrl(RPT_VIEWER_URL)
+				.setMsgType("NewOrderSingle")
+				.setMsgBody("load-test")
+				.build(), observer));
+
+		List<Request> requests = new ArrayList<>();
+		for (String weight : option("mix", "send=1,extract=1,find=1").split(",")) {
+			String[] parts = weight.split("=");
+			var call = calls.get(parts[0]);
+			if (call == null) {
+				throw new IllegalArgumentException("Unknown RPC in mix: " + parts[0]);
+			}
+			LatencyRecorder recorder = recorders.computeIfAbsent(parts[0], LatencyRecorder::new);
+			for (int i = 0; i < Integer.parseInt(parts[1]); i++) {
+				requests.add(new Request(call, recorder));
+			}
+		}
+		return requests;
+	}
+
+	private void send(Request request, RhSessionID session) {
+		long started = System.nanoTime();
+		inFlight.incrementAndGet();
+		request.call.accept(session, new StreamObserver<>() {
+			private String status = "NO_RESPONSE";
+
+			@Override
+			public void onNext(RhBatchResponseDemo value) {
+				status = value.getScriptStatus().name();
+			}
+
+			@Override
+			public void onError(Throwable t) {
+				inFlight.decrementAndGet();
+				request.recorder.record(System.nanoTime() - started, "GRPC_ERROR");
+			}
+
+			@Override
+			public void onCompleted() {
+				inFlight.decrementAndGet();
+				request.recorder.record(System.nanoTime() - started, status);
+			}
+		});
+	}
+
+	private Path writeConfiguration(int handPort, int check1Port) throws IOException {
+		Path dir = Files.createTempDirectory("act-load-test");
+		write(dir, "grpc.json", "{\"services\": {"
+				+ service("hand", "com.exactpro.th2.act.grpc.hand.RhBatchService", handPort) + ", "
+				+ service("check1", "com.exactpro.th2.check1.grpc.Check1Service", check1Port) + "}}");
+		write(dir, "custom.json", String.format("{\"act_url\": \"https://localhost/act-ui/\", \"action_threads\": %s, "
+						+ "\"result_cache_size\": %s, \"screenshot_policy\": \"%s\"}",
+				option("action-threads", "0"), option("result-cache-size", "0"), option("screenshot-policy", "ALWAYS")));
+		logger.info("Configuration is written to {}", dir);
+		return dir;
+	}
+
+	private static String service(String name, String serviceClass, int port) {
+		return String.format("\"%s\": {\"service-class\": \"%s\", \"strategy\": {\"name\": \"robin\", \"endpoints\": [\"stub\"]}, "
+				+ "\"endpoints\": {\"stub\": {\"host\": \"localhost\", \"port\": %d}}}", name, serviceClass, port);
+	}
+
+	private static void write(Path dir, String file, String content) throws IOException {
+		Files.write(dir.resolve(file), content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static class Request {
+		private final BiConsumer<RhSessionID, StreamObserver<RhBatchResponseDemo>> call;
+		private final LatencyRecorder recorder;
+
+		private Request(BiConsumer<RhSessionID, StreamObserver<RhBatchResponseDemo>> call, LatencyRecorder recorder) {
+			this.call = call;
+			this.recorder = recorder;
+		}
+	}
+}
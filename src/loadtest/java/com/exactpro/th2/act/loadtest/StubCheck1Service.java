@@ -0,0 +1,49 @@
+/*
+ * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exactpro.th2.act.loadtest;
+
+import com.exactpro.th2.check1.grpc.Check1Grpc;
+import com.exactpro.th2.check1.grpc.CheckpointRequest;
+import com.exactpro.th2.check1.grpc.CheckpointResponse;
+import com.exactpro.th2.common.grpc.Checkpoint;
+import io.grpc.stub.StreamObserver;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+class StubCheck1Service extends Check1Grpc.Check1ImplBase {
+
+	private final LatencyDistribution latency;
+	private final ScheduledExecutorService scheduler;
+	private final AtomicLong checkpointCounter = new AtomicLong();
+
+	StubCheck1Service(LatencyDistribution latency, ScheduledExecutorService scheduler) {
+		this.latency = latency;
+		this.scheduler = scheduler;
+	}
+
+	@Override
+	public void createCheckpoint(CheckpointRequest request, StreamObserver<CheckpointResponse> responseObserver) {
+		CheckpointResponse response = CheckpointResponse.newBuilder()
+				.setCheckpoint(Checkpoint.newBuilder().setId("stub-checkpoint-" + checkpointCounter.incrementAndGet()))
+				.build();
+		scheduler.schedule(() -> {
+			responseObserver.onNext(response);
+			responseObserver.onCompleted();
+		}, latency.sample(), TimeUnit.MILLISECONDS);
+	}
+}
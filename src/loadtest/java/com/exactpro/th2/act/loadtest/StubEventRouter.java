@@ -0,0 +1,67 @@
+/*
+ * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exactpro.th2.act.loadtest;
+
+import com.exactpro.th2.common.grpc.EventBatch;
+import com.exactpro.th2.common.schema.message.MessageRouter;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Event router which only counts sent events, so the load test doesn't need RabbitMQ.
+ * The router is a proxy, calls other than {@code send} do nothing.
+ */
+class StubEventRouter {
+
+	private final AtomicLong batches = new AtomicLong();
+	private final AtomicLong events = new AtomicLong();
+
+	@SuppressWarnings("unchecked")
+	MessageRouter<EventBatch> createRouter() {
+		return (MessageRouter<EventBatch>) Proxy.newProxyInstance(MessageRouter.class.getClassLoader(),
+				new Class<?>[] {MessageRouter.class}, (proxy, method, args) -> invoke(proxy, method, args));
+	}
+
+	long getBatches() {
+		return batches.get();
+	}
+
+	long getEvents() {
+		return events.get();
+	}
+
+	private Object invoke(Object proxy, Method method, Object[] args) {
+		switch (method.getName()) {
+			case "send":
+			case "sendAll":
+				if (args != null && args.length > 0 && args[0] instanceof EventBatch) {
+					batches.incrementAndGet();
+					events.addAndGet(((EventBatch) args[0]).getEventsCount());
+				}
+				return null;
+			case "equals":
+				return proxy == args[0];
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "toString":
+				return StubEventRouter.class.getSimpleName();
+			default:
+				return null;
+		}
+	}
+}
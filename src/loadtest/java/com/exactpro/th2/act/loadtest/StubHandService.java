@@ -0,0 +1,99 @@
+/*
+ * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exactpro.th2.act.loadtest;
+
+import com.exactpro.th2.act.grpc.hand.ResultDetails;
+import com.exactpro.th2.act.grpc.hand.RhAction;
+import com.exactpro.th2.act.grpc.hand.RhActionsBatch;
+import com.exactpro.th2.act.grpc.hand.RhBatchGrpc;
+import com.exactpro.th2.act.grpc.hand.RhBatchResponse;
+import com.exactpro.th2.act.grpc.hand.RhSessionID;
+import com.exactpro.th2.act.grpc.hand.RhTargetServer;
+import io.grpc.stub.StreamObserver;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * th2-hand which doesn't run browser. Batches are answered after sampled latency with values
+ * the actions expect: rpt-viewer link, extracted message and result of filling editor by script.
+ */
+class StubHandService extends RhBatchGrpc.RhBatchImplBase {
+
+	static final String EXTRACTED_MESSAGE = "8=FIXT.1.1\u00019=120\u000135=D\u000111=stub\u000110=000\u0001";
+
+	private final LatencyDistribution latency;
+	private final ScheduledExecutorService scheduler;
+	private final AtomicLong sessionCounter = new AtomicLong();
+	private final AtomicLong resultCounter = new AtomicLong();
+	private final AtomicLong batches = new AtomicLong();
+
+	StubHandService(LatencyDistribution latency, ScheduledExecutorService scheduler) {
+		this.latency = latency;
+		this.scheduler = scheduler;
+	}
+
+	long getBatches() {
+		return batches.get();
+	}
+
+	@Override
+	public void register(RhTargetServer request, StreamObserver<RhSessionID> responseObserver) {
+		String id = "stub-session-" + sessionCounter.incrementAndGet();
+		responseObserver.onNext(RhSessionID.newBuilder().setId(id).setSessionId(id).build());
+		responseObserver.onCompleted();
+	}
+
+	@Override
+	public void unregister(RhSessionID request, StreamObserver<RhBatchResponse> responseObserver) {
+		responseObserver.onNext(RhBatchResponse.newBuilder().setScriptStatus("SUCCESS").build());
+		responseObserver.onCompleted();
+	}
+
+	@Override
+	public void executeRhActionsBatch(RhActionsBatch request, StreamObserver<RhBatchResponse> responseObserver) {
+		batches.incrementAndGet();
+		RhBatchResponse.Builder response = RhBatchResponse.newBuilder()
+				.setScriptStatus("SUCCESS")
+				.setSessionId(request.getSessionId().getSessionId());
+		for (RhAction action : request.getActionList()) {
+			String result = createResult(action);
+			if (result != null) {
+				response.addResult(ResultDetails.newBuilder().setResult(result));
+			}
+		}
+		scheduler.schedule(() -> {
+			responseObserver.onNext(response.build());
+			responseObserver.onCompleted();
+		}, latency.sample(), TimeUnit.MILLISECONDS);
+	}
+
+	private String createResult(RhAction action) {
+		if ("href".equals(action.getParamsMap().get("attribute"))) {
+			return "https://localhost/rpt-viewer/?eventId=stub-" + resultCounter.incrementAndGet();
+		}
+		for (String value : action.getParamsMap().values()) {
+			if (value.contains("clipboard.readText")) {
+				return EXTRACTED_MESSAGE;
+			}
+			if (value.contains(".setValue(")) {
+				return "filled";
+			}
+		}
+		return null;
+	}
+}
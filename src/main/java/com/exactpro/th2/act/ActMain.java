@@ -56,7 +56,27 @@ public class ActMain {
             resources.add(messageRouter);
 
             TestUIFramework framework = new TestUIFramework(new TestUIActConnections(factory));
-            BindableService actHandler = new HandWinAct(grpcRouter.getService(Check1Service.class), framework);
+            TestUIActConfiguration configuration = framework.getActConfiguration();
+            // invalid locators fail the start instead of the first action
+            framework.getLocatorRegistry();
+            framework.setEventRouter(factory.getEventBatchRouter());
+            if (configuration.isAsyncEvents()) {
+                EventPublisher eventPublisher = new EventPublisher(factory.getEventBatchRouter(), configuration.getEventBatchSize(),
+                        configuration.getEventFlushInterval(), configuration.getEventQueueSize());
+                resources.add(eventPublisher);
+                framework.setEventPublisher(eventPublisher);
+            }
+            // closed before the event publisher, so events of background calls are flushed
+            resources.add(framework::closeRemoteCalls);
+            framework.startHandRouter();
+            resources.add(framework::closeHandRouter);
+            framework.startSessionPool();
+            resources.add(framework::closeSessionPool);
+            ActionDispatcher dispatcher = new ActionDispatcher(configuration.getActionThreads(),
+                    configuration.getMaxQueuedActions(), configuration.getMaxQueuedActionsPerSession());
+            resources.add(dispatcher);
+
+            BindableService actHandler = new HandWinAct(grpcRouter.getService(Check1Service.class), framework, dispatcher);
             ActServer actServer = new TestUIActServer(grpcRouter.startServer(actHandler));
             resources.add(actServer::stop);
             setReadiness(true);
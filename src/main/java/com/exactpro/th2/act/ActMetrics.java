@@ -0,0 +1,132 @@
+/*
+ * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.act;
+
+import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
+import io.prometheus.client.Histogram;
+
+/**
+ * Prometheus metrics of the act. They are exported by th2 common Prometheus endpoint.
+ */
+public final class ActMetrics {
+
+	private static final double[] DURATION_BUCKETS = {0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 25, 60, 120};
+
+	/** Time from receiving gRPC request to completing it, including time in the dispatcher queue */
+	public static final Histogram RPC_DURATION = Histogram.build()
+			.name("th2_act_ui_rpc_duration_seconds")
+			.help("Duration of gRPC requests")
+			.labelNames("rpc")
+			.buckets(DURATION_BUCKETS)
+			.register();
+
+	public static final Histogram ACTION_DURATION = Histogram.build()
+			.name("th2_act_ui_action_duration_seconds")
+			.help("Duration of action execution")
+			.labelNames("action")
+			.buckets(DURATION_BUCKETS)
+			.register();
+
+	/** Duration of hand batches submitted by actions */
+	public static final Histogram STEP_DURATION = Histogram.build()
+			.name("th2_act_ui_step_duration_seconds")
+			.help("Duration of action steps executed by th2-hand")
+			.labelNames("action", "step")
+			.buckets(DURATION_BUCKETS)
+			.register();
+
+	/** Duration of calls to check1, estore and rpt-data-provider */
+	public static final Histogram REMOTE_CALL_DURATION = Histogram.build()
+			.name("th2_act_ui_remote_call_duration_seconds")
+			.help("Duration of calls to other th2 components")
+			.labelNames("call")
+			.buckets(DURATION_BUCKETS)
+			.register();
+
+	/** Time from receiving gRPC request to start of its execution */
+	public static final Histogram QUEUE_WAIT = Histogram.build()
+			.name("th2_act_ui_queue_wait_seconds")
+			.help("Time gRPC requests wait for execution")
+			.labelNames("rpc")
+			.buckets(DURATION_BUCKETS)
+			.register();
+
+	public static final Gauge QUEUED_ACTIONS = Gauge.build()
+			.name("th2_act_ui_queued_actions")
+			.help("Number of actions waiting for execution")
+			.register();
+
+	public static final Counter REJECTED_REQUESTS = Counter.build()
+			.name("th2_act_ui_rejected_requests_total")
+			.help("Number of gRPC requests rejected because of full queue")
+			.labelNames("rpc")
+			.register();
+
+	public static final Counter CANCELLED_REQUESTS = Counter.build()
+			.name("th2_act_ui_cancelled_requests_total")
+			.help("Number of gRPC requests cancelled by client or by deadline")
+			.labelNames("rpc")
+			.register();
+
+	/** Steps submitted again after transient failure of th2-hand */
+	public static final Counter STEP_RETRIES = Counter.build()
+			.name("th2_act_ui_step_retries_total")
+			.help("Number of action steps retried after transient th2-hand failures")
+			.labelNames("action", "step")
+			.register();
+
+	public static final Counter ACTION_RESULTS = Counter.build()
+			.name("th2_act_ui_action_results_total")
+			.help("Number of finished actions by execution status")
+			.labelNames("action", "status")
+			.register();
+
+	public static final Gauge ACTIONS_IN_FLIGHT = Gauge.build()
+			.name("th2_act_ui_actions_in_flight")
+			.help("Number of actions being executed")
+			.labelNames("action")
+			.register();
+
+	public static final Gauge HAND_CALLS_IN_FLIGHT = Gauge.build()
+			.name("th2_act_ui_hand_calls_in_flight")
+			.help("Number of calls being executed by th2-hand endpoint")
+			.labelNames("endpoint")
+			.register();
+
+	public static final Gauge HAND_SESSIONS = Gauge.build()
+			.name("th2_act_ui_hand_sessions")
+			.help("Number of sessions registered on th2-hand endpoint")
+			.labelNames("endpoint")
+			.register();
+
+	/** 0 if the endpoint is drained and doesn't get new sessions */
+	public static final Gauge HAND_ENDPOINT_ACTIVE = Gauge.build()
+			.name("th2_act_ui_hand_endpoint_active")
+			.help("Whether th2-hand endpoint gets new sessions")
+			.labelNames("endpoint")
+			.register();
+
+	/** Waits are executed in the browser, so only their upper bounds are known to the act */
+	public static final Counter WAIT_TIMEOUT = Counter.build()
+			.name("th2_act_ui_wait_timeout_seconds_total")
+			.help("Sum of upper bounds of readiness waits added to hand scripts")
+			.register();
+
+	private ActMetrics() {
+	}
+}
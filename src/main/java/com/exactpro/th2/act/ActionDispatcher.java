@@ -0,0 +1,188 @@
+/*
+ * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.act;
+
+import com.exactpro.th2.act.grpc.hand.RhSessionID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs GUI actions outside of gRPC threads. Actions on the same session are executed one after another,
+ * actions on different sessions run in parallel. Waiting actions don't hold executor threads, including actions
+ * waiting for a session leased asynchronously, so the executor can be replaced with a virtual-thread-per-task one
+ * without other changes.
+ * Number of actions waiting for execution is limited in total and per session,
+ * actions exceeding the limits are rejected with {@link RejectedExecutionException} right away.
+ */
+public class ActionDispatcher implements AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(ActionDispatcher.class);
+
+	private final ExecutorService executor;
+	private final Map<RhSessionID, CompletableFuture<Void>> sessionTails = new ConcurrentHashMap<>();
+	private final Map<RhSessionID, Integer> sessionQueued = new ConcurrentHashMap<>();
+	private final AtomicInteger queued = new AtomicInteger();
+	private final int maxQueued;
+	private final int maxQueuedPerSession;
+
+	/**
+	 * @param threads number of threads executing actions, 0 to create threads on demand. Actions on the same
+	 *                session don't run in parallel, so on-demand threads are bounded by the number of busy sessions
+	 * @param maxQueued max number of actions waiting for execution, 0 for unlimited
+	 * @param maxQueuedPerSession max number of actions waiting for execution on one session, 0 for unlimited
+	 */
+	public ActionDispatcher(int threads, int maxQueued, int maxQueuedPerSession) {
+		this(threads > 0
+				? Executors.newFixedThreadPool(threads, new NamedThreadFactory("act-action"))
+				: Executors.newCachedThreadPool(new NamedThreadFactory("act-action")), maxQueued, maxQueuedPerSession);
+	}
+
+	public ActionDispatcher(ExecutorService executor, int maxQueued, int maxQueuedPerSession) {
+		this.executor = executor;
+		this.maxQueued = maxQueued;
+		this.maxQueuedPerSession = maxQueuedPerSession;
+	}
+
+	/**
+	 * @param sessionID session to serialize the task on, {@code null} to run without serialization
+	 * @return future completed when the task is finished or failed with {@link RejectedExecutionException}
+	 * if the queue is full
+	 */
+	public CompletableFuture<Void> dispatch(RhSessionID sessionID, Runnable task) {
+		return dispatch(sessionID, () -> CompletableFuture.completedFuture(sessionID), id -> task.run());
+	}
+
+	/**
+	 * Dispatches task which needs a session obtained asynchronously, e.g. leased from a pool.
+	 * The task is counted in the total queue limit while the session is awaited, the session is requested
+	 * only if the task is accepted. Tasks on the obtained session are serialized as usual.
+	 * @return future completed when the task is finished or failed if the session can't be obtained
+	 * or the queue is full
+	 */
+	public CompletableFuture<Void> dispatch(Supplier<CompletableFuture<RhSessionID>> session, Consumer<RhSessionID> task) {
+		return dispatch(null, session, task);
+	}
+
+	private CompletableFuture<Void> dispatch(RhSessionID queueKey, Supplier<CompletableFuture<RhSessionID>> session,
+			Consumer<RhSessionID> task) {
+		try {
+			acquire(queueKey);
+		} catch (RejectedExecutionException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+		AtomicBoolean started = new AtomicBoolean();
+		CompletableFuture<Void> future = session.get().thenCompose(sessionID -> submit(sessionID, () -> {
+			if (started.compareAndSet(false, true)) {
+				release(queueKey);
+			}
+			task.accept(sessionID);
+		}));
+		future.whenComplete((r, e) -> {
+			if (started.compareAndSet(false, true)) {
+				release(queueKey);
+			}
+		});
+		return future;
+	}
+
+	private void acquire(RhSessionID sessionID) {
+		if (queued.incrementAndGet() > maxQueued && maxQueued > 0) {
+			queued.decrementAndGet();
+			throw new RejectedExecutionException("Too many queued actions (" + maxQueued + ')');
+		}
+		if (sessionID != null && maxQueuedPerSession > 0) {
+			boolean[] accepted = {true};
+			sessionQueued.compute(sessionID, (id, count) -> {
+				int current = count == null ? 0 : count;
+				if (current >= maxQueuedPerSession) {
+					accepted[0] = false;
+					return count;
+				}
+				return current + 1;
+			});
+			if (!accepted[0]) {
+				queued.decrementAndGet();
+				throw new RejectedExecutionException("Too many queued actions on session " + sessionID.getId()
+						+ " (" + maxQueuedPerSession + ')');
+			}
+		}
+		ActMetrics.QUEUED_ACTIONS.inc();
+	}
+
+	private void release(RhSessionID sessionID) {
+		queued.decrementAndGet();
+		if (sessionID != null && maxQueuedPerSession > 0) {
+			sessionQueued.computeIfPresent(sessionID, (id, count) -> count <= 1 ? null : count - 1);
+		}
+		ActMetrics.QUEUED_ACTIONS.dec();
+	}
+
+	private CompletableFuture<Void> submit(RhSessionID sessionID, Runnable task) {
+		if (sessionID == null) {
+			try {
+				return CompletableFuture.runAsync(task, executor);
+			} catch (RejectedExecutionException e) {
+				return CompletableFuture.failedFuture(e);
+			}
+		}
+		CompletableFuture<?>[] holder = new CompletableFuture<?>[1];
+		CompletableFuture<Void> next = sessionTails.compute(sessionID, (id, tail) -> {
+			CompletableFuture<Void> previous = tail == null ? CompletableFuture.completedFuture(null) : tail.exceptionally(e -> null);
+			CompletableFuture<Void> future = previous.thenRunAsync(task, executor);
+			holder[0] = future;
+			return future;
+		});
+		next.whenComplete((r, e) -> sessionTails.remove(sessionID, holder[0]));
+		return next;
+	}
+
+	@Override
+	public void close() throws InterruptedException {
+		executor.shutdown();
+		if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+			logger.warn("Actions are not finished in 30 seconds, interrupting");
+			executor.shutdownNow();
+		}
+	}
+
+	private static class NamedThreadFactory implements ThreadFactory {
+		private final String prefix;
+		private final AtomicInteger counter = new AtomicInteger();
+
+		NamedThreadFactory(String prefix) {
+			this.prefix = prefix;
+		}
+
+		@Override
+		public Thread newThread(Runnable r) {
+			return new Thread(r, prefix + '-' + counter.incrementAndGet());
+		}
+	}
+}
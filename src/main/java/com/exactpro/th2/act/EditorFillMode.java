@@ -0,0 +1,29 @@
+/*
+ * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.act;
+
+/**
+ * How message body is put into act-ui editor.
+ */
+public enum EditorFillMode {
+	/** The editor model value is set by script, sending fails if the value doesn't match */
+	SCRIPT,
+	/** The message is typed to the editor */
+	TYPING,
+	/** The value is set by script in separate submit (one more round trip to th2-hand), falls back to typing if script isn't applicable */
+	AUTO
+}
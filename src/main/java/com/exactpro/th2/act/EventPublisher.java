@@ -0,0 +1,142 @@
+/*
+ * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exactpro.th2.act;
+
+import com.exactpro.th2.common.event.Event;
+import com.exactpro.th2.common.grpc.EventBatch;
+import com.exactpro.th2.common.grpc.EventID;
+import com.exactpro.th2.common.schema.message.MessageRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes events in background. Event IDs are generated locally, so callers get them without waiting for
+ * the event router. Queued events are sent in batches grouped by parent event when the batch is full or
+ * the flush interval elapses. If the queue is full the event is sent by the caller thread.
+ */
+public class EventPublisher implements AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(EventPublisher.class);
+	/** Queued by {@link #close()} to wake the publisher waiting for events, it is never sent */
+	private static final com.exactpro.th2.common.grpc.Event WAKE_UP = com.exactpro.th2.common.grpc.Event.getDefaultInstance();
+
+	private final MessageRouter<EventBatch> router;
+	private final int batchSize;
+	private final long flushIntervalNanos;
+	private final BlockingQueue<com.exactpro.th2.common.grpc.Event> queue;
+	private final Thread thread;
+	private volatile boolean running = true;
+
+	public EventPublisher(MessageRouter<EventBatch> router, int batchSize, long flushIntervalMillis, int queueSize) {
+		this.router = router;
+		this.batchSize = batchSize;
+		this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+		this.queue = new ArrayBlockingQueue<>(queueSize);
+		this.thread = new Thread(this::run, "event-publisher");
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+
+	/**
+	 * @return ID of the event, it can be used as parent ID before the event is stored
+	 */
+	public EventID publish(EventID parentId, Event event) throws IOException {
+		com.exactpro.th2.common.grpc.Event protoEvent = event.toProtoEvent(parentId == null ? null : parentId.getId());
+		if (!running || !queue.offer(protoEvent)) {
+			logger.debug("Event queue is full, sending event {} synchronously", protoEvent.getId().getId());
+			send(List.of(protoEvent));
+		}
+		return protoEvent.getId();
+	}
+
+	private void run() {
+		List<com.exactpro.th2.common.grpc.Event> events = new ArrayList<>(batchSize);
+		try {
+			while (running || !queue.isEmpty()) {
+				com.exactpro.th2.common.grpc.Event first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+				if (first == null || first == WAKE_UP) {
+					continue;
+				}
+				events.add(first);
+				long deadline = System.nanoTime() + flushIntervalNanos;
+				while (events.size() < batchSize) {
+					queue.drainTo(events, batchSize - events.size());
+					long remaining = deadline - System.nanoTime();
+					if (events.size() >= batchSize || remaining <= 0 || !running) {
+						break;
+					}
+					com.exactpro.th2.common.grpc.Event next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+					if (next == null || next == WAKE_UP) {
+						break;
+					}
+					events.add(next);
+				}
+				events.removeIf(event -> event == WAKE_UP);
+				send(events);
+				events.clear();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			logger.warn("Event publisher is interrupted, {} events are not sent", queue.size() + events.size());
+		}
+	}
+
+	private void send(List<com.exactpro.th2.common.grpc.Event> events) {
+		Map<EventID, EventBatch.Builder> batches = new LinkedHashMap<>();
+		for (com.exactpro.th2.common.grpc.Event event : events) {
+			if (event.hasParentId()) {
+				batches.computeIfAbsent(event.getParentId(), parentId -> EventBatch.newBuilder().setParentEventId(parentId))
+						.addEvents(event);
+			} else {
+				// root events can't share a batch
+				sendBatch(EventBatch.newBuilder().addEvents(event).build());
+			}
+		}
+		batches.values().forEach(batch -> sendBatch(batch.build()));
+	}
+
+	private void sendBatch(EventBatch batch) {
+		try {
+			router.send(batch);
+		} catch (IOException | RuntimeException e) {
+			logger.error("Cannot send batch of {} events", batch.getEventsCount(), e);
+		}
+	}
+
+	/**
+	 * Sends queued events and stops the publisher.
+	 */
+	@Override
+	public void close() throws InterruptedException {
+		running = false;
+		// if the queue is full the publisher is not waiting
+		queue.offer(WAKE_UP);
+		thread.join(TimeUnit.SECONDS.toMillis(30));
+		if (thread.isAlive()) {
+			logger.warn("Events are not sent in 30 seconds, {} events are dropped", queue.size());
+			thread.interrupt();
+		}
+	}
+}
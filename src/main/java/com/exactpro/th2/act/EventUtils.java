@@ -16,6 +16,7 @@
 
 package com.exactpro.th2.act;
 
+import com.exactpro.th2.common.event.IBodyData;
 import com.exactpro.th2.common.event.bean.IColumn;
 import com.exactpro.th2.common.event.bean.TreeTable;
 import com.exactpro.th2.common.event.bean.TreeTableEntry;
@@ -25,9 +26,13 @@ import com.exactpro.th2.common.event.bean.builder.TreeTableBuilder;
 import com.exactpro.th2.common.grpc.Message;
 import com.exactpro.th2.common.grpc.Value;
 
+import java.util.Map;
 import java.util.Map.Entry;
 
 public class EventUtils {
+    /**
+     * Builds tree table beans for whole message. Use {@link #toTreeTableBody} for large messages.
+     */
     public static TreeTable toTreeTable(Message message) {
         TreeTableBuilder treeTableBuilder = new TreeTableBuilder();
         for (Entry<String, Value> fieldEntry : message.getFieldsMap().entrySet()) {
@@ -36,6 +41,23 @@ public class EventUtils {
         return treeTableBuilder.build();
     }
 
+    /**
+     * @return event body which writes message fields while the event is serialized, limited by rows count and depth
+     */
+    public static IBodyData toTreeTableBody(Message message, int maxRows, int maxDepth, String truncationMarker) {
+        return new MessageTreeTable(message, maxRows, maxDepth, truncationMarker);
+    }
+
+    public static TreeTable toTreeTable(Map<String, String> params) {
+        TreeTableBuilder treeTableBuilder = new TreeTableBuilder();
+        for (Entry<String, String> param : params.entrySet()) {
+            treeTableBuilder.row(param.getKey(), new RowBuilder()
+                    .column(new MessageTableColumn(param.getValue()))
+                    .build());
+        }
+        return treeTableBuilder.build();
+    }
+
     private static TreeTableEntry toTreeTableEntry(Value fieldValue) {
         if (fieldValue.hasMessageValue()) {
             Message nestedMessageValue = fieldValue.getMessageValue();
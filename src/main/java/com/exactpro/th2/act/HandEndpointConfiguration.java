@@ -0,0 +1,58 @@
+/*
+ * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.act;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Address of th2-hand instance which executes actions of the act.
+ */
+public class HandEndpointConfiguration {
+
+	@JsonProperty("name")
+	private String name;
+
+	@JsonProperty("host")
+	private String host;
+
+	@JsonProperty("port")
+	private int port;
+
+	public String getName() {
+		return name == null || name.isEmpty() ? host + ':' + port : name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public String getHost() {
+		return host;
+	}
+
+	public void setHost(String host) {
+		this.host = host;
+	}
+
+	public int getPort() {
+		return port;
+	}
+
+	public void setPort(int port) {
+		this.port = port;
+	}
+}
@@ -19,6 +19,7 @@ package com.exactpro.th2.act;
 import com.exactpro.th2.act.actions.ExtractMessage;
 import com.exactpro.th2.act.actions.FindMessageInGui;
 import com.exactpro.th2.act.actions.SendNewOrderSingle;
+import com.exactpro.th2.act.actions.TestUIAction;
 import com.exactpro.th2.act.framework.TestUIFramework;
 import com.exactpro.th2.act.framework.exceptions.UIFrameworkException;
 import com.exactpro.th2.act.grpc.UiFrameWorkHandWebActGrpc;
@@ -30,34 +31,47 @@ import com.exactpro.th2.act.grpc.hand.RhSessionID;
 import com.exactpro.th2.act.grpc.hand.RhTargetServer;
 import com.exactpro.th2.check1.grpc.Check1Service;
 import com.google.protobuf.Empty;
+import io.grpc.Context;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
+import io.prometheus.client.Histogram;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
 public class HandWinAct extends UiFrameWorkHandWebActGrpc.UiFrameWorkHandWebActImplBase
 {
 	private static final Logger logger = LoggerFactory.getLogger(HandWinAct.class);
 	private final TestUIFramework framework; 
 	private final Check1Service verifierConnector;
+	private final ActionDispatcher dispatcher;
 	
-	public HandWinAct(Check1Service verifierConnector, TestUIFramework framework)
+	public HandWinAct(Check1Service verifierConnector, TestUIFramework framework, ActionDispatcher dispatcher)
 	{
 		this.verifierConnector = verifierConnector;
 		this.framework = framework;
+		this.dispatcher = dispatcher;
 	}
 
 	@Override
 	public void register(RhTargetServer request, StreamObserver<RhSessionID> responseObserver)
 	{
 		logger.debug("Executing register");
-		RhSessionID result = framework.getHandExecutor().register(request);
-		
 		try {
+			RhSessionID result = framework.registerHandSession(request);
 			framework.registerSession(result);
 			responseObserver.onNext(result);
 		} catch (UIFrameworkException e) {
-			logger.error("Cannot register framework session", e);
+			logger.error("Cannot register session", e);
 			responseObserver.onError(e);
+			return;
 		}
 		
 		responseObserver.onCompleted();
@@ -69,7 +83,7 @@ public class HandWinAct extends UiFrameWorkHandWebActGrpc.UiFrameWorkHandWebActI
 	public void unregister(RhSessionID request, StreamObserver<Empty> responseObserver)
 	{
 		logger.debug("Executing unregister");
-		framework.getHandExecutor().unregister(request);
+		framework.unregisterHandSession(request);
 		
 		try {
 			framework.unregisterSession(request);
@@ -77,6 +91,7 @@ public class HandWinAct extends UiFrameWorkHandWebActGrpc.UiFrameWorkHandWebActI
 		} catch (UIFrameworkException e) {
 			logger.error("Cannot unregister framework session", e);
 			responseObserver.onError(e);
+			return;
 		}
 		
 		responseObserver.onCompleted();
@@ -85,23 +100,202 @@ public class HandWinAct extends UiFrameWorkHandWebActGrpc.UiFrameWorkHandWebActI
 
 	@Override
 	public void sendNewOrderSingleGui(NewOrderSingleParams request, StreamObserver<RhBatchResponseDemo> responseObserver) {
-		logger.debug("Executing sendNewOrderSingleGui");
-		new SendNewOrderSingle(framework, verifierConnector, responseObserver).run(request);
-		logger.debug("Execution finished");
+		runAction("sendNewOrderSingleGui", request.getSessionID(), responseObserver, (sessionID, observer) ->
+				new SendNewOrderSingle(framework, verifierConnector, observer).run(request.toBuilder().setSessionID(sessionID).build()));
 	}
 
 	@Override
 	public void extractSentMessageGui(RptViewerDetails request, StreamObserver<RhBatchResponseDemo> responseObserver) {
-		logger.debug("Executing extractSentMessageGui");
-		new ExtractMessage(framework, responseObserver).run(request);
-		logger.debug("Execution finished");
+		if (respondFromCache("extractSentMessageGui", ExtractMessage.cacheKey(request), responseObserver)) {
+			return;
+		}
+		runAction("extractSentMessageGui", request.getSessionID(), responseObserver, (sessionID, observer) ->
+				new ExtractMessage(framework, observer).run(request.toBuilder().setSessionID(sessionID).build()));
 	}
 
 	@Override
 	public void findMessageGui(RptViewerSearchDetails request, StreamObserver<RhBatchResponseDemo> responseObserver) {
-		logger.debug("Executing findMessageGui");
-		new FindMessageInGui(framework, responseObserver).run(request);
-		logger.debug("Execution finished");
+		if (respondFromCache("findMessageGui", FindMessageInGui.cacheKey(request), responseObserver)) {
+			return;
+		}
+		runAction("findMessageGui", request.getSessionID(), responseObserver, (sessionID, observer) ->
+				new FindMessageInGui(framework, observer).run(request.toBuilder().setSessionID(sessionID).build()));
+	}
+
+	/**
+	 * Completes the call with the cached result, so the request neither waits in the dispatcher queue nor takes a session.
+	 * @return {@code true} if the result was found in the cache
+	 */
+	private boolean respondFromCache(String name, Object cacheKey, StreamObserver<RhBatchResponseDemo> responseObserver) {
+		ResultCache cache = framework.getResultCache();
+		Map<String, String> data = cache == null ? null : cache.get(cacheKey);
+		if (data == null) {
+			return false;
+		}
+		logger.debug("Result of {} is taken from cache", name);
+		responseObserver.onNext(RhBatchResponseDemo.newBuilder().putAllData(data)
+				.setScriptStatus(RhBatchResponseDemo.ExecutionStatus.SUCCESS).build());
+		responseObserver.onCompleted();
+		return true;
+	}
+
+	/**
+	 * Dispatches action to the executor and completes the observer asynchronously.
+	 * Actions on the same session are serialized, pooled sessions are exclusive by themselves
+	 * and are leased asynchronously, so actions waiting for them don't hold executor threads.
+	 * Requests are rejected with {@code RESOURCE_EXHAUSTED} status if the dispatcher queue is full.
+	 * The action runs in gRPC context of the request: it is skipped if the request is cancelled while queued,
+	 * it stops before the next hand step if the request is cancelled and waits are capped by the request deadline.
+	 * A batch already sent to hand is awaited, so the next action on the session starts after it.
+	 */
+	private void runAction(String name, RhSessionID requestedSession, StreamObserver<RhBatchResponseDemo> responseObserver, SessionAction action) {
+		logger.debug("Dispatching {}", name);
+		Histogram.Timer timer = ActMetrics.RPC_DURATION.labels(name).startTimer();
+		boolean pooled = RhSessionID.getDefaultInstance().equals(requestedSession) && framework.isSessionPoolEnabled();
+		long queuedAt = System.nanoTime();
+		if (responseObserver instanceof ServerCallStreamObserver) {
+			((ServerCallStreamObserver<RhBatchResponseDemo>) responseObserver).setOnCancelHandler(() -> {
+				logger.info("Execution {} is cancelled", name);
+				ActMetrics.CANCELLED_REQUESTS.labels(name).inc();
+			});
+		}
+		StreamObserver<RhBatchResponseDemo> observer = new SingleCompletionObserver(responseObserver);
+		Context grpcContext = Context.current();
+		SessionAction task = (sessionID, taskObserver) -> grpcContext.run(() -> {
+			ActMetrics.QUEUE_WAIT.labels(name).observe((System.nanoTime() - queuedAt) / 1e9);
+			if (grpcContext.isCancelled()) {
+				logger.info("Execution {} is skipped, request is cancelled or its deadline is exceeded", name);
+				taskObserver.onError(TestUIAction.cancellationStatus(grpcContext).asRuntimeException());
+				return;
+			}
+			logger.debug("Executing {}", name);
+			action.run(sessionID, taskObserver);
+		});
+		CompletableFuture<Void> execution;
+		if (pooled) {
+			//leased session is released by the task or here if the task is not executed
+			AtomicReference<RhSessionID> leased = new AtomicReference<>();
+			execution = dispatcher.dispatch(() -> framework.leaseSession().thenApply(sessionID -> {
+				leased.set(sessionID);
+				return sessionID;
+			}), sessionID -> runOnPooledSession(sessionID, leased, observer, task)).whenComplete((r, e) -> {
+				RhSessionID sessionID = leased.getAndSet(null);
+				if (sessionID != null) {
+					framework.releaseSession(sessionID, true);
+				}
+			});
+		} else {
+			execution = dispatcher.dispatch(requestedSession, () -> task.run(requestedSession, observer));
+		}
+		execution.whenComplete((result, e) -> {
+			timer.observeDuration();
+			Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+			if (e == null) {
+				logger.debug("Execution {} finished", name);
+			} else if (cause instanceof RejectedExecutionException) {
+				logger.warn("Execution {} rejected: {}", name, cause.getMessage());
+				ActMetrics.REJECTED_REQUESTS.labels(name).inc();
+				observer.onError(Status.RESOURCE_EXHAUSTED.withDescription(cause.getMessage()).asRuntimeException());
+			} else if (cause instanceof UIFrameworkException) {
+				logger.error("Cannot lease session for {}", name, cause);
+				observer.onError(Status.RESOURCE_EXHAUSTED.withDescription(cause.getMessage()).withCause(cause).asRuntimeException());
+			} else {
+				logger.error("Execution {} failed", name, e);
+				observer.onError(Status.INTERNAL.withDescription(e.getMessage()).withCause(e).asRuntimeException());
+			}
+		});
+	}
+
+	private void runOnPooledSession(RhSessionID sessionID, AtomicReference<RhSessionID> leased,
+			StreamObserver<RhBatchResponseDemo> responseObserver, SessionAction task) {
+		SessionHealthObserver observer = new SessionHealthObserver(responseObserver);
+		try {
+			task.run(sessionID, observer);
+		} finally {
+			if (leased.compareAndSet(sessionID, null)) {
+				framework.releaseSession(sessionID, observer.isHealthy());
+			}
+		}
+	}
+
+	@FunctionalInterface
+	private interface SessionAction {
+		void run(RhSessionID sessionID, StreamObserver<RhBatchResponseDemo> responseObserver);
+	}
+
+	/**
+	 * Tracks whether the action left the session usable, i.e. didn't fail inside hand or act.
+	 * Cancelled requests and exceeded deadlines are not failures of the session.
+	 */
+	private static class SessionHealthObserver implements StreamObserver<RhBatchResponseDemo> {
+		private final StreamObserver<RhBatchResponseDemo> delegate;
+		private volatile boolean healthy = true;
+
+		SessionHealthObserver(StreamObserver<RhBatchResponseDemo> delegate) {
+			this.delegate = delegate;
+		}
+
+		boolean isHealthy() {
+			return healthy;
+		}
+
+		@Override
+		public void onNext(RhBatchResponseDemo value) {
+			RhBatchResponseDemo.ExecutionStatus status = value.getScriptStatus();
+			if (status == RhBatchResponseDemo.ExecutionStatus.HAND_ERROR || status == RhBatchResponseDemo.ExecutionStatus.ACT_ERROR) {
+				healthy = false;
+			}
+			delegate.onNext(value);
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			Status.Code code = Status.fromThrowable(t).getCode();
+			if (code != Status.Code.CANCELLED && code != Status.Code.DEADLINE_EXCEEDED) {
+				healthy = false;
+			}
+			delegate.onError(t);
+		}
+
+		@Override
+		public void onCompleted() {
+			delegate.onCompleted();
+		}
+	}
+
+	/**
+	 * Passes only the first completion to the delegate, so failures reported after the action
+	 * has already completed the call don't break the gRPC stream.
+	 */
+	private static class SingleCompletionObserver implements StreamObserver<RhBatchResponseDemo> {
+		private final StreamObserver<RhBatchResponseDemo> delegate;
+		private final AtomicBoolean completed = new AtomicBoolean();
+
+		SingleCompletionObserver(StreamObserver<RhBatchResponseDemo> delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public void onNext(RhBatchResponseDemo value) {
+			if (!completed.get()) {
+				delegate.onNext(value);
+			}
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			if (completed.compareAndSet(false, true)) {
+				delegate.onError(t);
+			} else {
+				logger.debug("Call is already completed, error is ignored", t);
+			}
+		}
+
+		@Override
+		public void onCompleted() {
+			if (completed.compareAndSet(false, true)) {
+				delegate.onCompleted();
+			}
+		}
 	}
-	
 }
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exactpro.th2.act;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Locator of UI element in configuration. Exactly one of {@code id}, {@code css} and {@code xpath} should be set.
+ */
+public class LocatorConfiguration {
+
+	@JsonProperty("id")
+	private String id;
+
+	@JsonProperty("css")
+	private String css;
+
+	@JsonProperty("xpath")
+	private String xpath;
+
+	/** CSS selector or XPath (same as the locator) of the element to search in */
+	@JsonProperty("container")
+	private String container;
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public String getCss() {
+		return css;
+	}
+
+	public void setCss(String css) {
+		this.css = css;
+	}
+
+	public String getXpath() {
+		return xpath;
+	}
+
+	public void setXpath(String xpath) {
+		this.xpath = xpath;
+	}
+
+	public String getContainer() {
+		return container;
+	}
+
+	public void setContainer(String container) {
+		this.container = container;
+	}
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exactpro.th2.act;
+
+import com.exactpro.th2.common.event.IBodyData;
+import com.exactpro.th2.common.grpc.Message;
+import com.exactpro.th2.common.grpc.Value;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Event body with message fields in tree table format. The message is written to the event body
+ * while it is serialized, without building intermediate tree table beans and without recursion.
+ * Rows after {@code maxRows} and levels deeper than {@code maxDepth} are replaced with the truncation marker.
+ */
+public class MessageTreeTable implements IBodyData, JsonSerializable {
+
+	private final Message message;
+	private final int maxRows;
+	private final int maxDepth;
+	private final String truncationMarker;
+
+	public MessageTreeTable(Message message, int maxRows, int maxDepth, String truncationMarker) {
+		this.message = message;
+		this.maxRows = maxRows;
+		this.maxDepth = maxDepth;
+		this.truncationMarker = truncationMarker;
+	}
+
+	@Override
+	public void serialize(JsonGenerator generator, SerializerProvider serializers) throws IOException {
+		generator.writeStartObject();
+		generator.writeStringField("type", "treeTable");
+		generator.writeFieldName("rows");
+		generator.writeStartObject();
+
+		Deque<Level> levels = new ArrayDeque<>();
+		levels.push(new Level(message.getFieldsMap()));
+		int rows = 0;
+		while (!levels.isEmpty()) {
+			Level level = levels.peek();
+			if (!level.hasNext()) {
+				levels.pop();
+				// closes rows and collection objects of the nested level
+				if (!levels.isEmpty()) {
+					generator.writeEndObject();
+					generator.writeEndObject();
+				}
+				continue;
+			}
+			if (rows++ >= maxRows) {
+				writeRow(generator, "...", truncationMarker);
+				while (levels.size() > 1) {
+					levels.pop();
+					generator.writeEndObject();
+					generator.writeEndObject();
+				}
+				break;
+			}
+			String name = level.nextName();
+			Value value = level.nextValue();
+			if (value.hasMessageValue() || value.hasListValue()) {
+				if (levels.size() >= maxDepth) {
+					writeRow(generator, name, truncationMarker);
+					continue;
+				}
+				generator.writeFieldName(name);
+				generator.writeStartObject();
+				generator.writeStringField("type", "collection");
+				generator.writeFieldName("rows");
+				generator.writeStartObject();
+				levels.push(value.hasMessageValue()
+						? new Level(value.getMessageValue().getFieldsMap())
+						: new Level(value.getListValue().getValuesList()));
+			} else {
+				writeRow(generator, name, value.getSimpleValue());
+			}
+		}
+
+		generator.writeEndObject();
+		generator.writeEndObject();
+	}
+
+	@Override
+	public void serializeWithType(JsonGenerator generator, SerializerProvider serializers, TypeSerializer typeSerializer) throws IOException {
+		serialize(generator, serializers);
+	}
+
+	private static void writeRow(JsonGenerator generator, String name, String value) throws IOException {
+		generator.writeFieldName(name);
+		generator.writeStartObject();
+		generator.writeStringField("type", "row");
+		generator.writeFieldName("columns");
+		generator.writeStartObject();
+		generator.writeStringField("fieldValue", value);
+		generator.writeEndObject();
+		generator.writeEndObject();
+	}
+
+	/**
+	 * Fields of a message or items of a list, items are named by their indexes.
+	 */
+	private static class Level {
+		private final Iterator<Map.Entry<String, Value>> fields;
+		private final Iterator<Value> items;
+		private int index;
+		private Map.Entry<String, Value> field;
+
+		Level(Map<String, Value> fields) {
+			this.fields = fields.entrySet().iterator();
+			this.items = null;
+		}
+
+		Level(List<Value> items) {
+			this.fields = null;
+			this.items = items.iterator();
+		}
+
+		boolean hasNext() {
+			return fields != null ? fields.hasNext() : items.hasNext();
+		}
+
+		String nextName() {
+			if (fields != null) {
+				field = fields.next();
+				return field.getKey();
+			}
+			return String.valueOf(index++);
+		}
+
+		Value nextValue() {
+			return fields != null ? field.getValue() : items.next();
+		}
+	}
+}
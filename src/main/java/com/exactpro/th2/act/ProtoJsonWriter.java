@@ -0,0 +1,157 @@
+/*
+ * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.act;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.Descriptors.FieldDescriptor.JavaType;
+import com.google.protobuf.Message;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Writes protobuf messages as JSON objects with proto field names as keys.
+ * Only string, int and message fields are written, like act-ui expects. The field plan is computed
+ * once per {@link Descriptor} and the message is streamed to the generator without intermediate maps.
+ */
+public class ProtoJsonWriter {
+
+	private static final Logger logger = LoggerFactory.getLogger(ProtoJsonWriter.class);
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+	private static final Map<Descriptor, FieldPlan[]> PLANS = new ConcurrentHashMap<>();
+	private static final ThreadLocal<StringBuilderWriter> BUFFERS = ThreadLocal.withInitial(StringBuilderWriter::new);
+
+	private ProtoJsonWriter() {
+	}
+
+	public static String toJson(Message message) throws IOException {
+		StringBuilderWriter buffer = BUFFERS.get();
+		buffer.reset();
+		try (JsonGenerator generator = JSON_FACTORY.createGenerator(buffer)) {
+			write(message, generator);
+		}
+		return buffer.toString();
+	}
+
+	public static void write(Message message, JsonGenerator generator) throws IOException {
+		generator.writeStartObject();
+		for (FieldPlan field : PLANS.computeIfAbsent(message.getDescriptorForType(), ProtoJsonWriter::createPlan)) {
+			if (field.descriptor.isRepeated()) {
+				int count = message.getRepeatedFieldCount(field.descriptor);
+				if (count == 0) {
+					continue;
+				}
+				generator.writeFieldName(field.name);
+				generator.writeStartArray();
+				for (int i = 0; i < count; i++) {
+					writeValue(field.javaType, message.getRepeatedField(field.descriptor, i), generator);
+				}
+				generator.writeEndArray();
+			} else if (message.hasField(field.descriptor)) {
+				generator.writeFieldName(field.name);
+				writeValue(field.javaType, message.getField(field.descriptor), generator);
+			}
+		}
+		generator.writeEndObject();
+	}
+
+	private static void writeValue(JavaType javaType, Object value, JsonGenerator generator) throws IOException {
+		switch (javaType) {
+			case STRING:
+				generator.writeString((String) value);
+				break;
+			case INT:
+				generator.writeNumber((Integer) value);
+				break;
+			case MESSAGE:
+				write((Message) value, generator);
+				break;
+			default:
+				throw new IllegalStateException("Unsupported type " + javaType);
+		}
+	}
+
+	private static FieldPlan[] createPlan(Descriptor descriptor) {
+		List<FieldDescriptor> fields = new ArrayList<>(descriptor.getFields());
+		// the same field number order as Message.getAllFields()
+		fields.sort(Comparator.comparingInt(FieldDescriptor::getNumber));
+		List<FieldPlan> plan = new ArrayList<>(fields.size());
+		for (FieldDescriptor field : fields) {
+			JavaType javaType = field.getJavaType();
+			if (javaType == JavaType.STRING || javaType == JavaType.INT || javaType == JavaType.MESSAGE) {
+				plan.add(new FieldPlan(field));
+			} else {
+				logger.error("Unknown type for {} {}, field is skipped", field.getFullName(), javaType);
+			}
+		}
+		return plan.toArray(new FieldPlan[0]);
+	}
+
+	private static class FieldPlan {
+		final FieldDescriptor descriptor;
+		final JavaType javaType;
+		final SerializedString name;
+
+		FieldPlan(FieldDescriptor descriptor) {
+			this.descriptor = descriptor;
+			this.javaType = descriptor.getJavaType();
+			this.name = new SerializedString(descriptor.getName());
+		}
+	}
+
+	private static class StringBuilderWriter extends Writer {
+		private final StringBuilder builder = new StringBuilder(1024);
+
+		void reset() {
+			builder.setLength(0);
+		}
+
+		@Override
+		public void write(char[] cbuf, int off, int len) {
+			builder.append(cbuf, off, len);
+		}
+
+		@Override
+		public void write(String str, int off, int len) {
+			builder.append(str, off, off + len);
+		}
+
+		@Override
+		public void flush() {
+		}
+
+		@Override
+		public void close() {
+		}
+
+		@Override
+		public String toString() {
+			return builder.toString();
+		}
+	}
+}
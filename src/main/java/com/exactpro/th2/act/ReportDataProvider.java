@@ -0,0 +1,109 @@
+/*
+ * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.act;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Reads events and messages from rpt-data-provider HTTP API.
+ */
+public class ReportDataProvider {
+
+	private static final Logger logger = LoggerFactory.getLogger(ReportDataProvider.class);
+
+	/** rpt-viewer url parameters which can contain the selected event ID */
+	private static final List<String> EVENT_ID_PARAMETERS = List.of("eventId", "selectedEvent");
+
+	private final ObjectMapper mapper = new ObjectMapper();
+	private final HttpClient client;
+	private final String baseUrl;
+	private final Duration timeout;
+
+	public ReportDataProvider(String baseUrl, Duration timeout) {
+		this.baseUrl = baseUrl.endsWith("/") ? baseUrl : baseUrl + '/';
+		this.timeout = timeout;
+		this.client = HttpClient.newBuilder().connectTimeout(timeout).build();
+	}
+
+	/**
+	 * @return raw body of the first message attached to the event selected in rpt-viewer url,
+	 * {@code null} if the url doesn't contain event ID or the event has no attached messages
+	 */
+	public String findAttachedRawMessage(String rptViewerUrl) throws IOException, InterruptedException {
+		String eventId = getEventId(rptViewerUrl);
+		if (eventId == null) {
+			logger.debug("Event ID is not found in url {}", rptViewerUrl);
+			return null;
+		}
+		JsonNode messageIds = get("event/" + encode(eventId)).path("attachedMessageIds");
+		if (!messageIds.isArray() || messageIds.size() == 0) {
+			logger.debug("Event {} has no attached messages", eventId);
+			return null;
+		}
+		JsonNode message = get("message/" + encode(messageIds.get(0).asText()));
+		JsonNode body = message.path("bodyBase64");
+		if (!body.isTextual()) {
+			throw new IOException("Message " + messageIds.get(0).asText() + " has no raw body");
+		}
+		return new String(Base64.getDecoder().decode(body.asText()), StandardCharsets.UTF_8);
+	}
+
+	static String getEventId(String rptViewerUrl) {
+		String query = URI.create(rptViewerUrl).getRawQuery();
+		if (query == null) {
+			return null;
+		}
+		for (String parameter : query.split("&")) {
+			int index = parameter.indexOf('=');
+			if (index > 0 && EVENT_ID_PARAMETERS.contains(parameter.substring(0, index))) {
+				String value = URLDecoder.decode(parameter.substring(index + 1), StandardCharsets.UTF_8);
+				if (!value.isEmpty()) {
+					return value;
+				}
+			}
+		}
+		return null;
+	}
+
+	private JsonNode get(String path) throws IOException, InterruptedException {
+		HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(timeout).GET().build();
+		HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+		if (response.statusCode() != 200) {
+			throw new IOException("Data provider returned " + response.statusCode() + " for " + request.uri());
+		}
+		return mapper.readTree(response.body());
+	}
+
+	private static String encode(String value) {
+		return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+	}
+}
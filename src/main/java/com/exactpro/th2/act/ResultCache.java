@@ -0,0 +1,84 @@
+/*
+ * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.act;
+
+import io.prometheus.client.Counter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of action results. Entries expire after configured TTL.
+ */
+public class ResultCache {
+
+	private static final Counter REQUESTS = Counter.build()
+			.name("th2_act_ui_result_cache_requests_total")
+			.help("Number of result cache lookups")
+			.labelNames("result")
+			.register();
+	private static final Counter.Child HITS = REQUESTS.labels("hit");
+	private static final Counter.Child MISSES = REQUESTS.labels("miss");
+
+	private final long ttlNanos;
+	private final Map<Object, CachedResult> entries;
+
+	public ResultCache(int maxSize, long ttlMillis) {
+		this.ttlNanos = ttlMillis * 1_000_000;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Object, CachedResult> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+
+	/**
+	 * @return cached result data or {@code null} if it is absent or expired
+	 */
+	public synchronized Map<String, String> get(Object key) {
+		CachedResult entry = entries.get(key);
+		if (entry != null && System.nanoTime() - entry.created > ttlNanos) {
+			entries.remove(key);
+			entry = null;
+		}
+		if (entry == null) {
+			MISSES.inc();
+			return null;
+		}
+		HITS.inc();
+		return entry.data;
+	}
+
+	public synchronized void put(Object key, Map<String, String> data) {
+		entries.put(key, new CachedResult(Map.copyOf(data), System.nanoTime()));
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	private static class CachedResult {
+		private final Map<String, String> data;
+		private final long created;
+
+		private CachedResult(Map<String, String> data, long created) {
+			this.data = data;
+			this.created = created;
+		}
+	}
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.act;
+
+/**
+ * When actions take screenshots of the browser.
+ */
+public enum ScreenshotPolicy {
+	/** Screenshot is taken at the end of every action */
+	ALWAYS,
+	/** Screenshot is taken only if the action failed */
+	ON_FAILURE,
+	/** Screenshot is taken for every N-th action and for failed actions */
+	SAMPLED
+}
@@ -17,13 +17,111 @@
 package com.exactpro.th2.act;
 
 import com.exactpro.th2.act.configuration.CustomConfiguration;
+import com.exactpro.th2.act.framework.wait.ConditionWaitBuilder;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
 public class TestUIActConfiguration extends CustomConfiguration {
 
 	@JsonProperty("act_url")
 	private String url;
 
+	@JsonProperty("action_threads")
+	private int actionThreads;
+
+	@JsonProperty("max_queued_actions")
+	private int maxQueuedActions = 1_000;
+
+	@JsonProperty("max_queued_actions_per_session")
+	private int maxQueuedActionsPerSession = 100;
+
+	@JsonProperty("rpt_viewer_url")
+	private String rptViewerUrl;
+
+	@JsonProperty("data_provider_url")
+	private String dataProviderUrl;
+
+	@JsonProperty("data_provider_timeout_ms")
+	private long dataProviderTimeout = 5_000;
+
+	@JsonProperty("verify_in_gui")
+	private boolean verifyInGui;
+
+	@JsonProperty("result_cache_size")
+	private int resultCacheSize = 1_000;
+
+	@JsonProperty("result_cache_ttl_ms")
+	private long resultCacheTtl = 600_000;
+
+	@JsonProperty("async_events")
+	private boolean asyncEvents;
+
+	@JsonProperty("event_batch_size")
+	private int eventBatchSize = 100;
+
+	@JsonProperty("event_flush_interval_ms")
+	private long eventFlushInterval = 100;
+
+	@JsonProperty("event_queue_size")
+	private int eventQueueSize = 10_000;
+
+	@JsonProperty("session_pool_size")
+	private int sessionPoolSize;
+
+	@JsonProperty("session_pool_target")
+	private String sessionPoolTarget = "";
+
+	@JsonProperty("session_pool_lease_timeout_ms")
+	private long sessionPoolLeaseTimeout = 30_000;
+
+	@JsonProperty("hand_endpoints")
+	private List<HandEndpointConfiguration> handEndpoints = Collections.emptyList();
+
+	@JsonProperty("hand_health_check_interval_ms")
+	private long handHealthCheckInterval = 5_000;
+
+	@JsonProperty("hand_failure_threshold")
+	private int handFailureThreshold = 3;
+
+	@JsonProperty("step_retry_attempts")
+	private int stepRetryAttempts = 2;
+
+	@JsonProperty("step_retry_initial_backoff_ms")
+	private long stepRetryInitialBackoff = 500;
+
+	@JsonProperty("step_retry_max_backoff_ms")
+	private long stepRetryMaxBackoff = 5_000;
+
+	@JsonProperty("editor_fill_mode")
+	private EditorFillMode editorFillMode = EditorFillMode.SCRIPT;
+
+	@JsonProperty("message_read_mode")
+	private MessageReadMode messageReadMode = MessageReadMode.CLIPBOARD;
+
+	@JsonProperty("pipelined_submit")
+	private boolean pipelinedSubmit;
+
+	@JsonProperty("screenshot_policy")
+	private ScreenshotPolicy screenshotPolicy = ScreenshotPolicy.ALWAYS;
+
+	@JsonProperty("screenshot_sample_rate")
+	private int screenshotSampleRate = 10;
+
+	@JsonProperty("ui_versions")
+	private Map<String, String> uiVersions = Collections.emptyMap();
+
+	@JsonProperty("locators")
+	private Map<String, Map<String, Map<String, LocatorConfiguration>>> locators = Collections.emptyMap();
+
+	@JsonProperty("wait_poll_interval_ms")
+	private long waitPollInterval = ConditionWaitBuilder.DEFAULT_POLL_INTERVAL;
+
+	@JsonProperty("network_quiet_ms")
+	private long networkQuiet = 300;
+
 	public String getUrl() {
 		return url;
 	}
@@ -31,4 +129,252 @@ public class TestUIActConfiguration extends CustomConfiguration {
 	public void setUrl(String url) {
 		this.url = url;
 	}
+
+	public int getActionThreads() {
+		return actionThreads;
+	}
+
+	public void setActionThreads(int actionThreads) {
+		this.actionThreads = actionThreads;
+	}
+
+	public int getMaxQueuedActions() {
+		return maxQueuedActions;
+	}
+
+	public void setMaxQueuedActions(int maxQueuedActions) {
+		this.maxQueuedActions = maxQueuedActions;
+	}
+
+	public int getMaxQueuedActionsPerSession() {
+		return maxQueuedActionsPerSession;
+	}
+
+	public void setMaxQueuedActionsPerSession(int maxQueuedActionsPerSession) {
+		this.maxQueuedActionsPerSession = maxQueuedActionsPerSession;
+	}
+
+	public String getRptViewerUrl() {
+		return rptViewerUrl;
+	}
+
+	public void setRptViewerUrl(String rptViewerUrl) {
+		this.rptViewerUrl = rptViewerUrl;
+	}
+
+	public String getDataProviderUrl() {
+		return dataProviderUrl;
+	}
+
+	public void setDataProviderUrl(String dataProviderUrl) {
+		this.dataProviderUrl = dataProviderUrl;
+	}
+
+	public long getDataProviderTimeout() {
+		return dataProviderTimeout;
+	}
+
+	public void setDataProviderTimeout(long dataProviderTimeout) {
+		this.dataProviderTimeout = dataProviderTimeout;
+	}
+
+	public boolean isVerifyInGui() {
+		return verifyInGui;
+	}
+
+	public void setVerifyInGui(boolean verifyInGui) {
+		this.verifyInGui = verifyInGui;
+	}
+
+	public int getResultCacheSize() {
+		return resultCacheSize;
+	}
+
+	public void setResultCacheSize(int resultCacheSize) {
+		this.resultCacheSize = resultCacheSize;
+	}
+
+	public long getResultCacheTtl() {
+		return resultCacheTtl;
+	}
+
+	public void setResultCacheTtl(long resultCacheTtl) {
+		this.resultCacheTtl = resultCacheTtl;
+	}
+
+	public boolean isAsyncEvents() {
+		return asyncEvents;
+	}
+
+	public void setAsyncEvents(boolean asyncEvents) {
+		this.asyncEvents = asyncEvents;
+	}
+
+	public int getEventBatchSize() {
+		return eventBatchSize;
+	}
+
+	public void setEventBatchSize(int eventBatchSize) {
+		this.eventBatchSize = eventBatchSize;
+	}
+
+	public long getEventFlushInterval() {
+		return eventFlushInterval;
+	}
+
+	public void setEventFlushInterval(long eventFlushInterval) {
+		this.eventFlushInterval = eventFlushInterval;
+	}
+
+	public int getEventQueueSize() {
+		return eventQueueSize;
+	}
+
+	public void setEventQueueSize(int eventQueueSize) {
+		this.eventQueueSize = eventQueueSize;
+	}
+
+	public int getSessionPoolSize() {
+		return sessionPoolSize;
+	}
+
+	public void setSessionPoolSize(int sessionPoolSize) {
+		this.sessionPoolSize = sessionPoolSize;
+	}
+
+	public String getSessionPoolTarget() {
+		return sessionPoolTarget;
+	}
+
+	public void setSessionPoolTarget(String sessionPoolTarget) {
+		this.sessionPoolTarget = sessionPoolTarget;
+	}
+
+	public long getSessionPoolLeaseTimeout() {
+		return sessionPoolLeaseTimeout;
+	}
+
+	public void setSessionPoolLeaseTimeout(long sessionPoolLeaseTimeout) {
+		this.sessionPoolLeaseTimeout = sessionPoolLeaseTimeout;
+	}
+
+	public List<HandEndpointConfiguration> getHandEndpoints() {
+		return handEndpoints;
+	}
+
+	public void setHandEndpoints(List<HandEndpointConfiguration> handEndpoints) {
+		this.handEndpoints = handEndpoints;
+	}
+
+	public long getHandHealthCheckInterval() {
+		return handHealthCheckInterval;
+	}
+
+	public void setHandHealthCheckInterval(long handHealthCheckInterval) {
+		this.handHealthCheckInterval = handHealthCheckInterval;
+	}
+
+	public int getHandFailureThreshold() {
+		return handFailureThreshold;
+	}
+
+	public void setHandFailureThreshold(int handFailureThreshold) {
+		this.handFailureThreshold = handFailureThreshold;
+	}
+
+	public int getStepRetryAttempts() {
+		return stepRetryAttempts;
+	}
+
+	public void setStepRetryAttempts(int stepRetryAttempts) {
+		this.stepRetryAttempts = stepRetryAttempts;
+	}
+
+	public long getStepRetryInitialBackoff() {
+		return stepRetryInitialBackoff;
+	}
+
+	public void setStepRetryInitialBackoff(long stepRetryInitialBackoff) {
+		this.stepRetryInitialBackoff = stepRetryInitialBackoff;
+	}
+
+	public long getStepRetryMaxBackoff() {
+		return stepRetryMaxBackoff;
+	}
+
+	public void setStepRetryMaxBackoff(long stepRetryMaxBackoff) {
+		this.stepRetryMaxBackoff = stepRetryMaxBackoff;
+	}
+
+	public EditorFillMode getEditorFillMode() {
+		return editorFillMode;
+	}
+
+	public void setEditorFillMode(EditorFillMode editorFillMode) {
+		this.editorFillMode = editorFillMode;
+	}
+
+	public MessageReadMode getMessageReadMode() {
+		return messageReadMode;
+	}
+
+	public void setMessageReadMode(MessageReadMode messageReadMode) {
+		this.messageReadMode = messageReadMode;
+	}
+
+	public boolean isPipelinedSubmit() {
+		return pipelinedSubmit;
+	}
+
+	public void setPipelinedSubmit(boolean pipelinedSubmit) {
+		this.pipelinedSubmit = pipelinedSubmit;
+	}
+
+	public ScreenshotPolicy getScreenshotPolicy() {
+		return screenshotPolicy;
+	}
+
+	public void setScreenshotPolicy(ScreenshotPolicy screenshotPolicy) {
+		this.screenshotPolicy = screenshotPolicy;
+	}
+
+	public int getScreenshotSampleRate() {
+		return screenshotSampleRate;
+	}
+
+	public void setScreenshotSampleRate(int screenshotSampleRate) {
+		this.screenshotSampleRate = screenshotSampleRate;
+	}
+
+	public Map<String, String> getUiVersions() {
+		return uiVersions;
+	}
+
+	public void setUiVersions(Map<String, String> uiVersions) {
+		this.uiVersions = uiVersions;
+	}
+
+	public Map<String, Map<String, Map<String, LocatorConfiguration>>> getLocators() {
+		return locators;
+	}
+
+	public void setLocators(Map<String, Map<String, Map<String, LocatorConfiguration>>> locators) {
+		this.locators = locators;
+	}
+
+	public long getWaitPollInterval() {
+		return waitPollInterval;
+	}
+
+	public void setWaitPollInterval(long waitPollInterval) {
+		this.waitPollInterval = waitPollInterval;
+	}
+
+	public long getNetworkQuiet() {
+		return networkQuiet;
+	}
+
+	public void setNetworkQuiet(long networkQuiet) {
+		this.networkQuiet = networkQuiet;
+	}
 }
@@ -0,0 +1,290 @@
+/*
+ * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.act.actions;
+
+import com.exactpro.th2.act.EditorFillMode;
+import com.exactpro.th2.act.framework.JsUtils;
+import com.exactpro.th2.act.framework.PageState;
+import com.exactpro.th2.act.framework.TestUIFrameworkContext;
+import com.exactpro.th2.act.framework.TestUIFrameworkSessionContext;
+import com.exactpro.th2.act.framework.builders.web.WebBuilderManager;
+import com.exactpro.th2.act.framework.builders.web.WebLocator;
+import com.exactpro.th2.act.framework.exceptions.UIFrameworkBuildingException;
+import com.exactpro.th2.act.framework.exceptions.UIFrameworkException;
+import com.exactpro.th2.act.framework.locators.Locator;
+import com.exactpro.th2.act.framework.locators.UiElement;
+import com.exactpro.th2.act.framework.ui.constants.SendTextExtraButtons;
+import com.exactpro.th2.act.framework.ui.utils.UIUtils;
+import com.exactpro.th2.act.framework.wait.WaitCondition;
+import com.exactpro.th2.act.grpc.hand.ResultDetails;
+import com.exactpro.th2.act.grpc.hand.RhBatchResponse;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+
+/**
+ * Steps of sending a message on act-ui page: opening the page, selecting service parameters, filling and sending the message.
+ */
+class ActUiPage {
+
+	private static final Logger logger = LoggerFactory.getLogger(ActUiPage.class);
+
+	public static final String EDITOR_FILLED = "filled";
+	/** Sets value of the act-ui (monaco) editor model and verifies it, %s - value literal, %s - mismatch handling */
+	private static final String SET_EDITOR_VALUE_SCRIPT = "const value = %s; "
+			+ "const models = window.monaco && window.monaco.editor ? window.monaco.editor.getModels() : []; "
+			+ "if (models.length !== 1) { %s } "
+			+ "models[0].setValue(value); "
+			+ "if (models[0].getValue() !== value) { %2$s } "
+			+ "return '" + EDITOR_FILLED + "';";
+
+	/*
+	 * Values of the scripts below are marked with prefixes, so they are found among results of other actions
+	 * of the batch regardless of their position
+	 */
+	static final String RESULT_LINK_PREFIX = "result-link=";
+	static final String PAGE_FINGERPRINT_PREFIX = "page-fingerprint=";
+
+	/**
+	 * Returns href of the sending result link, %s - expression of the link node, %s - href of the previous result.
+	 * The previous result stays on page until the new one is shown, so hrefs are compared after they are resolved by browser
+	 */
+	private static final String RESULT_LINK_SCRIPT = "const link = %s; const previous = %s; "
+			+ "if (link == null || link.href === previous) { throw new Error('Sending result link is not found'); } "
+			+ "return '" + RESULT_LINK_PREFIX + "' + link.href;";
+
+	/**
+	 * Reads url, selected service parameters and the last sending result of the page,
+	 * %s - expressions of session, dictionary and message type selects, %s - expression of the result link
+	 */
+	private static final String PAGE_FINGERPRINT_SCRIPT = "const text = s => s != null && s.selectedIndex >= 0 "
+			+ "? s.options[s.selectedIndex].text : ''; "
+			+ "const link = %4$s; "
+			+ "return '" + PAGE_FINGERPRINT_PREFIX + "' + "
+			+ "[location.href, text(%1$s), text(%2$s), text(%3$s), link == null ? '' : link.href].join('\\n');";
+
+	private final TestUIAction<?> action;
+	private final TestUIFrameworkContext context;
+	private final WebBuilderManager builderManager;
+
+	ActUiPage(TestUIAction<?> action, TestUIFrameworkContext context) {
+		this.action = action;
+		this.context = context;
+		this.builderManager = context.createBuilderManager();
+	}
+
+	WebBuilderManager getBuilderManager() {
+		return builderManager;
+	}
+
+	/**
+	 * @return the page collecting actions in the step context, see {@link TestUIFrameworkContext#newStep()}
+	 */
+	ActUiPage inStep(TestUIFrameworkContext step) {
+		return step == context ? this : new ActUiPage(action, step);
+	}
+
+	static Map<String, String> serviceParams(String session, String dictionary, String messageType) {
+		return Map.of("session", session, "dictionary", dictionary, "msg-type", messageType);
+	}
+
+	/**
+	 * Takes the page state left by the previous action on the session. The state is saved again
+	 * by {@link #savePageState} only if the current action succeeds.
+	 * @return the state if the page was opened with the same url and service parameters, otherwise {@code null}
+	 */
+	PageState takePageState(String url, Map<String, String> serviceParams) {
+		TestUIFrameworkSessionContext sessionContext = action.getSessionContext(context);
+		if (sessionContext == null) {
+			return null;
+		}
+		PageState state = sessionContext.getPageState();
+		sessionContext.setPageState(null);
+		return state != null && state.matches(url, serviceParams) ? state : null;
+	}
+
+	/**
+	 * Checks with one script that the page is not changed since the state was saved.
+	 */
+	boolean isUnchanged(PageState state) throws UIFrameworkException {
+		TestUIFrameworkContext step = context.newStep();
+		inStep(step).requestFingerprint();
+		RhBatchResponse response = action.submitStep(step, "Checking page state");
+		return response != null && state.getFingerprint().equals(findResult(response, PAGE_FINGERPRINT_PREFIX));
+	}
+
+	void requestFingerprint() throws UIFrameworkBuildingException {
+		builderManager.executeJS().command(String.format(PAGE_FINGERPRINT_SCRIPT,
+				action.locator(UiElement.ACT_SESSION_SELECT).toJsNode(), action.locator(UiElement.ACT_DICTIONARY_SELECT).toJsNode(),
+				action.locator(UiElement.ACT_MESSAGE_TYPE_SELECT).toJsNode(), action.locator(UiElement.ACT_RESULT_LINK).toJsNode())).build();
+	}
+
+	/**
+	 * @param response response of the batch with the result link and the fingerprint requested after it
+	 */
+	void savePageState(String url, Map<String, String> serviceParams, RhBatchResponse response) {
+		TestUIFrameworkSessionContext sessionContext = action.getSessionContext(context);
+		String fingerprint = findResult(response, PAGE_FINGERPRINT_PREFIX);
+		String lastResult = findResult(response, RESULT_LINK_PREFIX);
+		if (sessionContext == null || fingerprint == null || lastResult == null) {
+			return;
+		}
+		sessionContext.setPageState(new PageState(url, serviceParams, fingerprint, lastResult));
+	}
+
+	void open(String url) throws UIFrameworkBuildingException {
+		action.resetPageState(context);
+		// Opening ACT-URL
+		builderManager.open().url(url).build();
+
+		// Waiting up to 3 sec for page loading
+		action.waitUntil(builderManager, WaitCondition.documentReady(), action.networkQuiet()).seconds(action.waitSeconds(3)).build();
+	}
+
+	void selectServiceParams(String session, String dictionary, String messageType) throws UIFrameworkBuildingException {
+		if (!session.isEmpty()) {
+			// Choosing session from dropbox
+			Locator sessionSelect = chooseOption(UiElement.ACT_SESSION_SELECT, session);
+
+			action.waitUntil(builderManager, WaitCondition.selectValue(sessionSelect, session), action.networkQuiet())
+					.seconds(action.waitSeconds(1)).build();
+		}
+
+		if (!dictionary.isEmpty()) {
+			// Choosing dictionary from dropbox
+			Locator dictionarySelect = chooseOption(UiElement.ACT_DICTIONARY_SELECT, dictionary);
+
+			action.waitUntil(builderManager, WaitCondition.selectValue(dictionarySelect, dictionary), action.networkQuiet())
+					.seconds(action.waitSeconds(1)).build();
+		}
+
+		if (!messageType.isEmpty()) {
+			// the template of the chosen type replaces the current editor content
+			builderManager.executeJS().command(WaitCondition.SAVE_EDITOR_CONTENT_SCRIPT).build();
+			// Choosing msg type from dropbox
+			Locator messageTypeSelect = chooseOption(UiElement.ACT_MESSAGE_TYPE_SELECT, messageType);
+
+			// Waiting up to 3 sec for message template loading
+			action.waitUntil(builderManager, WaitCondition.selectValue(messageTypeSelect, messageType),
+					WaitCondition.editorContentChanged(), action.networkQuiet()).seconds(action.waitSeconds(3)).build();
+		}
+	}
+
+	/**
+	 * Waits up to 10 sec for the option to be loaded and chooses it.
+	 * @return locator of the select
+	 */
+	private Locator chooseOption(UiElement select, String optionText) throws UIFrameworkBuildingException {
+		Locator selectLocator = action.locator(select);
+		action.waitUntil(builderManager, WaitCondition.selectOption(selectLocator, optionText))
+				.seconds(action.waitSeconds(10)).failOnTimeout().build();
+		builderManager.sendKeys().locator(selectLocator.toWebLocator()).wait(action.waitSeconds(5)).needClick(true)
+				.text(optionText + SendTextExtraButtons.ENTER.handCommand()).build();
+		return selectLocator;
+	}
+
+	/**
+	 * Puts message to the editor. {@link EditorFillMode#AUTO} submits the script separately to check its result.
+	 */
+	void fillMessage(String messageJson, EditorFillMode mode) throws UIFrameworkException {
+		switch (mode) {
+			case SCRIPT:
+				builderManager.executeJS().command(String.format(SET_EDITOR_VALUE_SCRIPT, JsUtils.quote(messageJson),
+						"throw new Error('Cannot set editor value');")).build();
+				break;
+			case AUTO:
+				builderManager.executeJS().command(String.format(SET_EDITOR_VALUE_SCRIPT, JsUtils.quote(messageJson),
+						"return 'unavailable';")).build();
+				RhBatchResponse response = action.submitStep(context, "Filling message body by script");
+				if (!EDITOR_FILLED.equals(getFirstResult(response))) {
+					logger.warn("Cannot set editor value by script, typing message");
+					typeMessage(messageJson);
+				}
+				break;
+			case TYPING:
+			default:
+				typeMessage(messageJson);
+		}
+	}
+
+	private void typeMessage(String messageJson) throws UIFrameworkBuildingException {
+		// Adding fields from script to message
+		WebLocator inputAreaLocator = action.webLocator(UiElement.ACT_EDITOR_INPUT);
+		builderManager.click().locator(inputAreaLocator).build();
+		builderManager.sendKeysToActive().text(UIUtils.keyCombo(SendTextExtraButtons.CONTROL, "a") + 
+				SendTextExtraButtons.DELETE).build();
+		builderManager.sendKeysToActive().text(SendTextExtraButtons.BACKSPACE.handCommand().repeat(4)).build();
+		builderManager.sendKeysToActive().text(messageJson).build();
+	}
+
+	/**
+	 * @param previousHref link of the previous sending result on the same page, {@code null} if nothing was sent yet
+	 */
+	void send(String previousHref) throws UIFrameworkBuildingException {
+		// clicking send and extracting table
+		builderManager.click().locator(action.webLocator(UiElement.ACT_SEND_BUTTON)).wait(action.waitSeconds(5)).build();
+
+		// Waiting up to 3 sec for sending result
+		WaitCondition result = previousHref == null ? WaitCondition.elementPresent(action.locator(UiElement.ACT_SEND_RESULT))
+				: WaitCondition.linkChanged(action.locator(UiElement.ACT_RESULT_LINK), previousHref);
+		action.waitUntil(builderManager, result, action.networkQuiet()).seconds(action.waitSeconds(3)).build();
+	}
+
+	void requestResultLink(String previousHref) throws UIFrameworkBuildingException {
+		Locator link = action.locator(UiElement.ACT_RESULT_LINK);
+		action.waitUntil(builderManager, WaitCondition.linkChanged(link, previousHref)).seconds(action.waitSeconds(20)).build();
+		builderManager.executeJS().command(String.format(RESULT_LINK_SCRIPT, link.toJsNode(),
+				previousHref == null ? "null" : JsUtils.quote(previousHref))).build();
+	}
+
+	/**
+	 * @return url to rpt-viewer from hand response or {@code null} if hand didn't return it
+	 */
+	static String getResultUrl(RhBatchResponse response) {
+		for (ResultDetails resultDetails : response.getResultList()) {
+			if (resultDetails.getResult().startsWith(RESULT_LINK_PREFIX)) {
+				String urlRpt = resultDetails.getResult().substring(RESULT_LINK_PREFIX.length());
+				if (StringUtils.isNotEmpty(resultDetails.getActionId())) {
+					urlRpt = resultDetails.getActionId() + "=" + urlRpt;
+				}
+				return urlRpt;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return value of the first result marked with the prefix (without the prefix) or {@code null} if it is absent
+	 */
+	static String findResult(RhBatchResponse response, String prefix) {
+		for (ResultDetails resultDetails : response.getResultList()) {
+			if (resultDetails.getResult().startsWith(prefix)) {
+				return resultDetails.getResult().substring(prefix.length());
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return the first value returned by hand, {@code null} if there is no values
+	 */
+	static String getFirstResult(RhBatchResponse response) {
+		return response.getResultList().isEmpty() ? null : response.getResultList().get(0).getResult();
+	}
+}
@@ -16,36 +16,39 @@
 
 package com.exactpro.th2.act.actions;
 
+import com.exactpro.th2.act.ActMetrics;
 import com.exactpro.th2.act.ActResult;
+import com.exactpro.th2.act.MessageReadMode;
+import com.exactpro.th2.act.ReportDataProvider;
 import com.exactpro.th2.act.framework.TestUIFramework;
 import com.exactpro.th2.act.framework.TestUIFrameworkContext;
 import com.exactpro.th2.act.framework.builders.web.WebBuilderManager;
-import com.exactpro.th2.act.framework.builders.web.WebLocator;
 import com.exactpro.th2.act.framework.exceptions.UIFrameworkBuildingException;
 import com.exactpro.th2.act.framework.exceptions.UIFrameworkException;
+import com.exactpro.th2.act.framework.locators.UiElement;
+import com.exactpro.th2.act.framework.wait.WaitCondition;
 import com.exactpro.th2.act.grpc.RhBatchResponseDemo;
 import com.exactpro.th2.act.grpc.RptViewerDetails;
 import com.exactpro.th2.act.grpc.hand.RhSessionID;
 import com.exactpro.th2.common.grpc.EventID;
 import io.grpc.stub.StreamObserver;
+import io.prometheus.client.Histogram;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 public class ExtractMessage extends TestUIAction<RptViewerDetails>{
 
 	private static final Logger logger = LoggerFactory.getLogger(ExtractMessage.class);
 	
-	public static final String EVENT_XPATH = "//*[@class='event-header-card__title' and starts-with(@title, 'Send')]";
-	public static final String EVENT_EXPAND_XPATH = "//div[@class='event-tree-card' and @style='padding-left: 20px;']//div[contains(@class, 'selected')]/../div[contains(@class, 'expand-icon')]";
-	public static final String ATTACHED_MESSAGE_XPATH = "//div[contains(@class, 'attached') and contains(@class, 'message-card')]";
-	public static final String MESSAGE_SHOW_RAW_XPATH = "//div[contains(@class, 'attached') and contains(@class, 'message-card')]//div[@class='message-card-tools__ellipsis']";
-	public static final String MESSAGE_SHOW_ASCII_XPATH = "//div[contains(@class, 'attached') and contains(@class, 'message-card')]//div[@class='message-card-tools__icon ascii']";
-	public static final String MESSAGE_COPY_ALL_XPATH = "//div[contains(@class, 'attached') and contains(@class, 'message-card')]//div[@class='message-card-tools__copy-all']";
+	public static final String MESSAGE_KEY = "message";
+	public static final String CLEAR_CLIPBOARD_AND_CLICK = "await navigator.clipboard.writeText(''); @Element@.click()";
 	
 	public ExtractMessage(TestUIFramework framework, StreamObserver<RhBatchResponseDemo> responseObserver) {
 		super(framework, responseObserver);
@@ -85,17 +88,102 @@ public class ExtractMessage extends TestUIAction<RptViewerDetails>{
 		return logger;
 	}
 
-	static void clickOnSendEvent(WebBuilderManager builderManager) throws UIFrameworkBuildingException {
+	@Override
+	protected Object getCacheKey(RptViewerDetails rptViewerDetails) {
+		return cacheKey(rptViewerDetails);
+	}
+
+	public static Object cacheKey(RptViewerDetails rptViewerDetails) {
+		return List.of(ExtractMessage.class, rptViewerDetails.getUrl());
+	}
+
+	static void clickOnSendEvent(TestUIAction<?> action, WebBuilderManager builderManager) throws UIFrameworkBuildingException {
 		//waits that event is loaded
 		//expand subroot event
-		builderManager.waitForElement().locator(WebLocator.byXPath(EVENT_EXPAND_XPATH)).seconds(5).build();
-		builderManager.waitAction().seconds(1).build();
-		builderManager.click().locator(WebLocator.byXPath(EVENT_EXPAND_XPATH)).build();
+		builderManager.waitForElement().locator(action.webLocator(UiElement.RPT_EVENT_EXPAND)).seconds(action.waitSeconds(5)).build();
+		action.waitUntil(builderManager, action.networkQuiet()).seconds(action.waitSeconds(1)).build();
+		builderManager.click().locator(action.webLocator(UiElement.RPT_EVENT_EXPAND)).build();
 		
 		//clicks on events to filter and highlight messages
-		builderManager.click().locator(WebLocator.byXPath(EVENT_XPATH)).wait(5).build();
+		builderManager.click().locator(action.webLocator(UiElement.RPT_SEND_EVENT)).wait(action.waitSeconds(5)).build();
 	}
 	
+	/**
+	 * Reads raw message shown in the message card. The message is the last result of the hand batch.
+	 * @param attached {@code true} to read message attached to the event, {@code false} to read the first shown message
+	 * @see MessageReadMode
+	 */
+	static void copyRawMessage(TestUIAction<?> action, WebBuilderManager builderManager, boolean attached) throws UIFrameworkBuildingException {
+		//clicks on show raw
+		builderManager.executeJSElement().locator(action.webLocator(attached ? UiElement.RPT_ATTACHED_MESSAGE_SHOW_RAW : UiElement.RPT_MESSAGE_SHOW_RAW))
+				.wait(action.waitSeconds(30)).command("@Element@.click()").build();
+		builderManager.click().locator(action.webLocator(attached ? UiElement.RPT_ATTACHED_MESSAGE_SHOW_ASCII : UiElement.RPT_MESSAGE_SHOW_ASCII))
+				.wait(action.waitSeconds(5)).build();
+
+		if (action.getActConfiguration().getMessageReadMode() == MessageReadMode.DOM) {
+			builderManager.executeJS().command(createReadTextScript(action, attached)).build();
+			return;
+		}
+
+		//clicks on copy all to clipboard
+		builderManager.click().locator(action.webLocator(attached ? UiElement.RPT_ATTACHED_MESSAGE : UiElement.RPT_MESSAGE))
+				.wait(action.waitSeconds(5)).build();
+		builderManager.executeJSElement().locator(action.webLocator(attached ? UiElement.RPT_ATTACHED_MESSAGE_COPY_ALL : UiElement.RPT_MESSAGE_COPY_ALL))
+				.wait(action.waitSeconds(5)).command(CLEAR_CLIPBOARD_AND_CLICK).build();
+
+		action.waitUntil(builderManager, WaitCondition.clipboardFilled()).seconds(action.waitSeconds(5)).build();
+
+		builderManager.executeJS().command("return await navigator.clipboard.readText()").build();
+	}
+
+	/**
+	 * Creates script which returns text of the raw message card content as soon as it is rendered.
+	 * If the content isn't found (e.g. its locator doesn't match rpt-viewer version), the message is copied
+	 * to the clipboard by "copy all" button in the same script, so no extra hand round trip is needed.
+	 */
+	static String createReadTextScript(TestUIAction<?> action, boolean attached) {
+		long pollInterval = action.getActConfiguration().getWaitPollInterval();
+		String sleep = "await new Promise(resolve => setTimeout(resolve, " + pollInterval + "));";
+		return "let deadline = Date.now() + " + action.waitSeconds(5) * 1000L + "; let node; "
+				+ "while ((node = " + action.locator(attached ? UiElement.RPT_ATTACHED_MESSAGE_RAW_TEXT : UiElement.RPT_MESSAGE_RAW_TEXT).toJsNode()
+				+ ") == null && Date.now() < deadline) { " + sleep + " } "
+				//text content is returned as is: it doesn't include line breaks added by rendering
+				+ "if (node != null && node.textContent.length > 0) { return node.textContent; } "
+				+ "const card = " + action.locator(attached ? UiElement.RPT_ATTACHED_MESSAGE : UiElement.RPT_MESSAGE).toJsNode() + "; "
+				+ "const copyAll = " + action.locator(attached ? UiElement.RPT_ATTACHED_MESSAGE_COPY_ALL : UiElement.RPT_MESSAGE_COPY_ALL).toJsNode() + "; "
+				+ "if (card == null || copyAll == null) { throw new Error('Raw message is not found'); } "
+				+ "card.click(); await navigator.clipboard.writeText(''); copyAll.click(); "
+				+ "deadline = Date.now() + " + action.waitSeconds(5) * 1000L + "; let text; "
+				+ "while ((text = await navigator.clipboard.readText()).length === 0 && Date.now() < deadline) { " + sleep + " } "
+				+ "return text;";
+	}
+
+	/**
+	 * @return raw message attached to the event or {@code null} if it should be extracted via GUI
+	 */
+	private String readFromDataProvider(String url) {
+		ReportDataProvider dataProvider = ((TestUIFramework) framework).getDataProvider();
+		if (dataProvider == null) {
+			return null;
+		}
+		Histogram.Timer timer = ActMetrics.REMOTE_CALL_DURATION.labels("data_provider").startTimer();
+		try {
+			String message = dataProvider.findAttachedRawMessage(url);
+			if (message == null) {
+				logger.info("Message is not found via data provider, extracting it via GUI");
+			}
+			return message;
+		} catch (IOException e) {
+			logger.warn("Cannot read message via data provider, extracting it via GUI", e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			logger.warn("Interrupted while reading message via data provider, extracting it via GUI");
+		} finally {
+			timer.observeDuration();
+		}
+		return null;
+	}
+
 	@Override
 	protected void collectActions(RptViewerDetails rptViewerDetails, TestUIFrameworkContext testUIFrameworkContext, ActResult actResult) throws UIFrameworkException {
 			
@@ -109,23 +197,22 @@ public class ExtractMessage extends TestUIAction<RptViewerDetails>{
 			throw new UIFrameworkBuildingException("Attached URL is not valid");
 		}
 
+		if (!getActConfiguration().isVerifyInGui()) {
+			String message = readFromDataProvider(rptViewerDetails.getUrl());
+			if (message != null) {
+				actResult.setData(Collections.singletonMap(MESSAGE_KEY, message));
+				return;
+			}
+		}
+
+		resetPageState(testUIFrameworkContext);
 		builderManager.open().url(rptViewerDetails.getUrl()).build();
 
-		clickOnSendEvent(builderManager);
+		clickOnSendEvent(this, builderManager);
 		
-		//clicks on show raw
-		builderManager.executeJSElement().locator(WebLocator.byXPath(MESSAGE_SHOW_RAW_XPATH)).wait(30)
-				.command("@Element@.click()").build();
-		builderManager.click().locator(WebLocator.byXPath(MESSAGE_SHOW_ASCII_XPATH)).wait(5).build();
-		//clicks on copy all to clipboard
-		builderManager.click().locator(WebLocator.byXPath(ATTACHED_MESSAGE_XPATH)).wait(5).build();
-		builderManager.click().locator(WebLocator.byXPath(MESSAGE_COPY_ALL_XPATH)).wait(5).build();
-		
-		builderManager.waitAction().seconds(5).build();
-
-		builderManager.executeJS().command("return await navigator.clipboard.readText()").build();
+		copyRawMessage(this, builderManager, true);
 		
-		builderManager.getScreenshot().build();
+		takeScreenshot(builderManager);
 	}
 
 	
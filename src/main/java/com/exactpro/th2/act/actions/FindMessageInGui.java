@@ -20,10 +20,11 @@ import com.exactpro.th2.act.ActResult;
 import com.exactpro.th2.act.framework.TestUIFramework;
 import com.exactpro.th2.act.framework.TestUIFrameworkContext;
 import com.exactpro.th2.act.framework.builders.web.WebBuilderManager;
-import com.exactpro.th2.act.framework.builders.web.WebLocator;
 import com.exactpro.th2.act.framework.exceptions.UIFrameworkBuildingException;
 import com.exactpro.th2.act.framework.exceptions.UIFrameworkException;
+import com.exactpro.th2.act.framework.locators.UiElement;
 import com.exactpro.th2.act.framework.ui.constants.SendTextExtraButtons;
+import com.exactpro.th2.act.framework.wait.WaitCondition;
 import com.exactpro.th2.act.grpc.RhBatchResponseDemo;
 import com.exactpro.th2.act.grpc.RptViewerSearchDetails;
 import com.exactpro.th2.act.grpc.hand.RhSessionID;
@@ -35,24 +36,15 @@ import org.slf4j.LoggerFactory;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
-import static com.exactpro.th2.act.actions.ExtractMessage.*;
+import static com.exactpro.th2.act.actions.ExtractMessage.clickOnSendEvent;
+import static com.exactpro.th2.act.actions.ExtractMessage.copyRawMessage;
 
 public class FindMessageInGui extends TestUIAction<RptViewerSearchDetails> {
 
 	private static final Logger logger = LoggerFactory.getLogger(FindMessageInGui.class);
-	
-	public static final String OPEN_FILTER_BTN = "//*[@class='messages-window-header']//*[contains(@class, 'filter__title')]";
-	public static final String ROW_MSG_TYPE = "(//div[contains(@style, 'visible')]/*[@class='filter']//*[@class='filter__compound'])[2]//input";
-	public static final String ROW_BODY_TYPE = "(//div[contains(@style, 'visible')]/*[@class='filter']//*[@class='filter__compound'])[3]//input";
-	public static final String BUTTON_APPLY_TYPE = "(//*[@class='filter-row__button'])[2]";
-
-	public static final String ATTACHED_MESSAGE_XPATH = "//div[contains(@class, 'message-card')]";
-	public static final String MESSAGE_SHOW_RAW_XPATH = "//div[contains(@class, 'message-card')]//div[@class='message-card-tools__ellipsis']";
-	public static final String MESSAGE_SHOW_ASCII_XPATH = "//div[contains(@class, 'message-card')]//div[@class='message-card-tools__icon ascii']";
-	public static final String MESSAGE_COPY_ALL_XPATH = "//div[contains(@class, 'message-card')]//div[@class='message-card-tools__copy-all']";
-
 
 	public FindMessageInGui(TestUIFramework framework, StreamObserver<RhBatchResponseDemo> responseObserver) {
 		super(framework, responseObserver);
@@ -97,6 +89,15 @@ public class FindMessageInGui extends TestUIAction<RptViewerSearchDetails> {
 		return logger;
 	}
 
+	@Override
+	protected Object getCacheKey(RptViewerSearchDetails rptViewerDetails) {
+		return cacheKey(rptViewerDetails);
+	}
+
+	public static Object cacheKey(RptViewerSearchDetails rptViewerDetails) {
+		return List.of(FindMessageInGui.class, rptViewerDetails.getUrl(), rptViewerDetails.getMsgType(), rptViewerDetails.getMsgBody());
+	}
+
 	@Override
 	protected void collectActions(RptViewerSearchDetails rptViewerDetails, TestUIFrameworkContext testUIFrameworkContext, ActResult actResult) throws UIFrameworkException {
 		WebBuilderManager builderManager = testUIFrameworkContext.createBuilderManager();
@@ -108,34 +109,24 @@ public class FindMessageInGui extends TestUIAction<RptViewerSearchDetails> {
 			throw new UIFrameworkBuildingException("Attached URL is not valid");
 		}
 
+		resetPageState(testUIFrameworkContext);
 		builderManager.open().url(rptViewerDetails.getUrl()).build();
 
-		clickOnSendEvent(builderManager);
+		clickOnSendEvent(this, builderManager);
 
-		builderManager.waitAction().seconds(2).build();
+		waitUntil(builderManager, networkQuiet()).seconds(waitSeconds(2)).build();
 		//filtering
-		builderManager.click().locator(WebLocator.byXPath(OPEN_FILTER_BTN)).wait(5).build();
-		builderManager.waitAction().seconds(1).build();
-		builderManager.click().locator(WebLocator.byXPath(ROW_MSG_TYPE)).build();
+		builderManager.click().locator(webLocator(UiElement.RPT_FILTER_OPEN)).wait(waitSeconds(5)).build();
+		waitUntil(builderManager, WaitCondition.elementPresent(locator(UiElement.RPT_FILTER_MESSAGE_TYPE))).seconds(waitSeconds(1)).build();
+		builderManager.click().locator(webLocator(UiElement.RPT_FILTER_MESSAGE_TYPE)).build();
 		builderManager.sendKeysToActive().text(rptViewerDetails.getMsgType() + SendTextExtraButtons.ENTER.handCommand()).build();
-		builderManager.click().locator(WebLocator.byXPath(ROW_BODY_TYPE)).build();
+		builderManager.click().locator(webLocator(UiElement.RPT_FILTER_MESSAGE_BODY)).build();
 		builderManager.sendKeysToActive().text(rptViewerDetails.getMsgBody() + SendTextExtraButtons.ENTER.handCommand()).build();
-		builderManager.click().locator(WebLocator.byXPath(BUTTON_APPLY_TYPE)).build();
-
-		//clicks on show raw
-
-		builderManager.executeJSElement().locator(WebLocator.byXPath(MESSAGE_SHOW_RAW_XPATH)).wait(30)
-				.command("@Element@.click()").build();
-		builderManager.click().locator(WebLocator.byXPath(MESSAGE_SHOW_ASCII_XPATH)).wait(5).build();
-		//clicks on copy all to clipboard
-		builderManager.click().locator(WebLocator.byXPath(ATTACHED_MESSAGE_XPATH)).wait(5).build();
-		builderManager.click().locator(WebLocator.byXPath(MESSAGE_COPY_ALL_XPATH)).wait(5).build();
-
-		builderManager.waitAction().seconds(5).build();
+		builderManager.click().locator(webLocator(UiElement.RPT_FILTER_APPLY)).build();
 
-		builderManager.executeJS().command("return await navigator.clipboard.readText()").build();
+		copyRawMessage(this, builderManager, false);
 
-		builderManager.getScreenshot().build();
+		takeScreenshot(builderManager);
 	}
 
 	@Override
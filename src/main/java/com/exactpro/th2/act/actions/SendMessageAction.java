@@ -0,0 +1,244 @@
+/*
+ * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.act.actions;
+
+import com.exactpro.th2.act.ActMetrics;
+import com.exactpro.th2.act.ActResult;
+import com.exactpro.th2.act.EventUtils;
+import com.exactpro.th2.act.ProtoJsonWriter;
+import com.exactpro.th2.act.framework.TestUIFramework;
+import com.exactpro.th2.act.framework.TestUIFrameworkContext;
+import com.exactpro.th2.act.framework.exceptions.UIFrameworkException;
+import com.exactpro.th2.act.grpc.RhBatchResponseDemo;
+import com.exactpro.th2.act.grpc.hand.RhBatchResponse;
+import com.exactpro.th2.act.grpc.hand.RhSessionID;
+import com.exactpro.th2.check1.grpc.Check1Service;
+import com.exactpro.th2.check1.grpc.CheckpointRequest;
+import com.exactpro.th2.check1.grpc.CheckpointResponse;
+import com.exactpro.th2.common.event.Event;
+import com.exactpro.th2.common.event.IBodyData;
+import com.exactpro.th2.common.event.bean.builder.MessageBuilder;
+import com.exactpro.th2.common.grpc.Checkpoint;
+import com.exactpro.th2.common.grpc.EventID;
+import com.google.protobuf.Message;
+import io.grpc.Context;
+import io.grpc.stub.StreamObserver;
+import io.prometheus.client.Histogram;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import static com.google.protobuf.TextFormat.shortDebugString;
+
+/**
+ * Base class for actions which send messages via act-ui. ID of the parent event is generated locally,
+ * so steps are submitted right away while the parent event and then the check1 checkpoint are stored in background.
+ * Subclasses join them with {@link #awaitCheckpoint()} before the message is sent.
+ */
+public abstract class SendMessageAction<T> extends TestUIAction<T> {
+
+	private static final String EVENT_TYPE = "ActUI";
+	/** Script status of successfully executed hand batch */
+	private static final String HAND_SUCCESS_STATUS = "SUCCESS";
+
+	private final Check1Service verifierConnector;
+	private CompletableFuture<EventID> parentEventFuture;
+	private CompletableFuture<Checkpoint> checkpointFuture;
+
+	public SendMessageAction(TestUIFramework framework, Check1Service verifierConnector, StreamObserver<RhBatchResponseDemo> responseObserver) {
+		super(framework, responseObserver);
+		this.verifierConnector = verifierConnector;
+	}
+
+	protected String getActUrl() throws UIFrameworkException {
+		String url = getActConfiguration().getUrl();
+		if (StringUtils.isEmpty(url)) {
+			throw new UIFrameworkException("Invalid configuration. Act UI url should be provided");
+		}
+		return url;
+	}
+
+	@Override
+	protected void execute(T details)
+	{
+		Logger logger = getLogger();
+		logger.debug("Executing {}", getClass().getSimpleName());
+		RhSessionID sessionID = getSessionID(details);
+
+		ActResult actResult = new ActResult();
+		TestUIFrameworkContext frameworkContext = null;
+		try {
+			frameworkContext = framework.newExecution(sessionID);
+			EventID parentEventId = getParentEventId(details);
+			if (storeParentEvent()) {
+				Event event = createParentEvent(convertRequestParams(details));
+				EventID eventId = TestUIFramework.eventId(event);
+				parentEventFuture = CompletableFuture.supplyAsync(() -> saveParentEvent(parentEventId, event), remoteCalls());
+				frameworkContext.setParentEventId(eventId);
+			} else {
+				parentEventFuture = CompletableFuture.completedFuture(parentEventId);
+				frameworkContext.setParentEventId(parentEventId);
+			}
+
+			logger.debug("Creating checkpoint");
+			checkpointFuture = parentEventFuture.thenApplyAsync(this::registerCheckPoint, remoteCalls());
+			logger.debug("Executing UI steps");
+			this.collectActions(details, frameworkContext, actResult);
+			awaitCheckpoint();
+			this.submitActions(frameworkContext, actResult);
+			actResult.setSessionID(sessionID);
+
+			logger.debug("Execution finished");
+		} catch (UIFrameworkException e) {
+			logger.error("Cannot execute", e);
+			actResult.setScriptStatus(ActResult.ActExecutionStatus.ACT_ERROR);
+			actResult.setErrorInfo("Cannot unregister framework session:" + e.getMessage());
+			if (frameworkContext != null) {
+				takeFailureScreenshot(frameworkContext);
+			}
+		} finally {
+			if (frameworkContext != null) {
+				framework.onExecutionFinished(frameworkContext);
+			}
+		}
+
+		try {
+			this.processResult(actResult);
+		} catch (UIFrameworkException e) {
+			logger.error("Cannot process act result", e);
+		}
+	}
+
+	@Override
+	protected Checkpoint getCheckpoint() {
+		CompletableFuture<Checkpoint> future = checkpointFuture;
+		return future != null && future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+	}
+
+	/**
+	 * Waits for the checkpoint. Should be called before submitting the step which sends message.
+	 */
+	protected Checkpoint awaitCheckpoint() throws UIFrameworkException {
+		return await(checkpointFuture);
+	}
+
+	/**
+	 * Creates sub-event for every step sent in pipelined hand batch. Events are stored in background.
+	 * Status of the events is the status of the batch, because hand doesn't report status of separate steps.
+	 */
+	protected void reportSubmittedSteps(TestUIFrameworkContext context, RhBatchResponse response) {
+		EventID parentEventId = context.getParentEventId();
+		String status = response == null ? "unknown" : response.getScriptStatus();
+		Event.Status eventStatus = HAND_SUCCESS_STATUS.equalsIgnoreCase(status) ? Event.Status.PASSED : Event.Status.FAILED;
+		Executor executor = remoteCalls();
+		for (String step : context.getSubmittedSteps()) {
+			executor.execute(() -> {
+				try {
+					IBodyData body = new MessageBuilder().text("Executed in pipelined hand batch. Batch status: " + status).build();
+					((TestUIFramework) framework).storeEvent(parentEventId, Event.start().endTimestamp()
+							.name(step)
+							.type(EVENT_TYPE)
+							.status(eventStatus)
+							.bodyData(body));
+				} catch (IOException | RuntimeException e) {
+					getLogger().warn("Cannot create event for step '{}'", step, e);
+				}
+			});
+		}
+	}
+
+	/**
+	 * @return executor of remote calls which runs tasks in the current gRPC context, so they get its deadline and cancellation
+	 */
+	private Executor remoteCalls() {
+		return Context.currentContextExecutor(((TestUIFramework) framework).getRemoteCallsExecutor());
+	}
+
+	private Event createParentEvent(Map<String, String> requestParams) {
+		Event event = Event.start().endTimestamp()
+				.name(getName())
+				.type(EVENT_TYPE)
+				.status(Event.Status.PASSED)
+				.bodyData(EventUtils.toTreeTable(requestParams));
+		IBodyData additionalInfo = createAdditionalEventInfo();
+		if (additionalInfo != null) {
+			event.bodyData(additionalInfo);
+		}
+		return event;
+	}
+
+	/**
+	 * @return ID of the stored event
+	 */
+	private EventID saveParentEvent(EventID parentEventId, Event event) {
+		Histogram.Timer timer = ActMetrics.REMOTE_CALL_DURATION.labels("parent_event").startTimer();
+		try {
+			((TestUIFramework) framework).storeEvent(parentEventId, event);
+			return TestUIFramework.eventId(event);
+		} catch (IOException e) {
+			throw new CompletionException(new UIFrameworkException("Cannot create event", e));
+		} finally {
+			timer.observeDuration();
+		}
+	}
+
+	private static <V> V await(CompletableFuture<V> future) throws UIFrameworkException {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof UIFrameworkException) {
+				throw (UIFrameworkException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new UIFrameworkException("Remote call failed", cause);
+		}
+	}
+
+	private Checkpoint registerCheckPoint(EventID parentEventId) {
+		Logger logger = getLogger();
+		logger.debug("Registering the checkpoint started");
+		CheckpointResponse response;
+		Histogram.Timer timer = ActMetrics.REMOTE_CALL_DURATION.labels("checkpoint").startTimer();
+		try {
+			response = verifierConnector.createCheckpoint(CheckpointRequest.newBuilder()
+					.setParentEventId(parentEventId)
+					.build());
+		} finally {
+			timer.observeDuration();
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Registering the checkpoint ended. Response " + shortDebugString(response));
+		}
+		return response.getCheckpoint();
+	}
+
+	protected String createMessageJson(Message body) throws IOException {
+		String str = ProtoJsonWriter.toJson(body);
+		
+		getLogger().debug("Built json: {}", str);
+
+		return str;
+	}
+}
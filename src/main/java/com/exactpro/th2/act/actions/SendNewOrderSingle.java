@@ -16,56 +16,39 @@
 
 package com.exactpro.th2.act.actions;
 
+import com.exactpro.th2.act.ActMetrics;
 import com.exactpro.th2.act.ActResult;
-import com.exactpro.th2.act.TestUIActConfiguration;
-import com.exactpro.th2.act.configuration.CustomConfiguration;
+import com.exactpro.th2.act.EditorFillMode;
+import com.exactpro.th2.act.framework.PageState;
 import com.exactpro.th2.act.framework.TestUIFramework;
 import com.exactpro.th2.act.framework.TestUIFrameworkContext;
-import com.exactpro.th2.act.framework.builders.web.WebBuilderManager;
-import com.exactpro.th2.act.framework.builders.web.WebLocator;
 import com.exactpro.th2.act.framework.exceptions.UIFrameworkBuildingException;
 import com.exactpro.th2.act.framework.exceptions.UIFrameworkException;
-import com.exactpro.th2.act.framework.ui.constants.SendTextExtraButtons;
-import com.exactpro.th2.act.framework.ui.utils.UIUtils;
+import com.exactpro.th2.act.framework.exceptions.UIFrameworkExecutionException;
 import com.exactpro.th2.act.grpc.NewOrderSingleParams;
 import com.exactpro.th2.act.grpc.RhBatchResponseDemo;
-import com.exactpro.th2.act.grpc.hand.ResultDetails;
 import com.exactpro.th2.act.grpc.hand.RhBatchResponse;
 import com.exactpro.th2.act.grpc.hand.RhSessionID;
 import com.exactpro.th2.check1.grpc.Check1Service;
-import com.exactpro.th2.check1.grpc.CheckpointRequest;
-import com.exactpro.th2.check1.grpc.CheckpointResponse;
-import com.exactpro.th2.common.grpc.Checkpoint;
 import com.exactpro.th2.common.grpc.EventID;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.protobuf.Descriptors;
 import com.google.protobuf.Descriptors.FieldDescriptor.JavaType;
-import com.google.protobuf.GeneratedMessageV3;
 import io.grpc.stub.StreamObserver;
-import org.apache.commons.lang3.StringUtils;
+import io.prometheus.client.Histogram;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
+import java.io.IOException;
 import java.util.Collections;
 import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
 
-import static com.google.protobuf.TextFormat.shortDebugString;
-
-public class SendNewOrderSingle extends TestUIAction<NewOrderSingleParams>
+public class SendNewOrderSingle extends SendMessageAction<NewOrderSingleParams>
 {
 	private static final Logger logger = LoggerFactory.getLogger(SendNewOrderSingle.class);
 
-	private final Check1Service verifierConnector;
-	private Checkpoint checkpoint;
-
 	public SendNewOrderSingle(TestUIFramework framework, Check1Service verifierConnector, StreamObserver<RhBatchResponseDemo> responseObserver)
 	{
-		super(framework, responseObserver);
-		this.verifierConnector = verifierConnector;
+		super(framework, verifierConnector, responseObserver);
 	}
 
 	@Override
@@ -82,7 +65,7 @@ public class SendNewOrderSingle extends TestUIAction<NewOrderSingleParams>
 		return input.getDescription();
 	}
 
-	private Map<String, String> getServiceParamsMap(NewOrderSingleParams executionReportParams) {
+	static Map<String, String> getServiceParamsMap(NewOrderSingleParams executionReportParams) {
 		Map<String, String> params = new LinkedHashMap<>();
 		params.put("session", executionReportParams.getSession());
 		params.put("dictionary", executionReportParams.getDictionary());
@@ -90,18 +73,23 @@ public class SendNewOrderSingle extends TestUIAction<NewOrderSingleParams>
 		return params;
 	}
 
-	private Map<String, String> getMgsBodyParamsMap(NewOrderSingleParams executionReportParams) {
+	static Map<String, String> getRequestParamsMap(NewOrderSingleParams executionReportParams) {
+		Map<String, String> params = getServiceParamsMap(executionReportParams);
+		params.putAll(getMgsBodyParamsMap(executionReportParams.getMessage(), ""));
+		return params;
+	}
+
+	static Map<String, String> getMgsBodyParamsMap(NewOrderSingleParams.NewOrderSingleBody body, String prefix) {
 		Map<String, String> params = new LinkedHashMap<>();
-		var body = executionReportParams.getMessage();
 		body.getAllFields().entrySet().stream()
 				.filter(ent -> ent.getKey().getJavaType() != JavaType.MESSAGE)
-				.forEach(ent -> params.put(ent.getKey().getName(), String.valueOf(ent.getValue())));
+				.forEach(ent -> params.put(prefix + ent.getKey().getName(), String.valueOf(ent.getValue())));
 
 		var tradingParty = body.getTradingParty();
 		int i = 0;
 		for (NewOrderSingleParams.NoPartyID noPartyID : tradingParty.getNoPartyIDsList()) {
 			i++;
-			var key = "NoPartyId[" + i + "]_";
+			var key = prefix + "NoPartyId[" + i + "]_";
 			noPartyID.getAllFields().forEach((key1, value) -> params.put(key + key1.getName(), String.valueOf(value)));
 		}
 		return params;
@@ -110,9 +98,7 @@ public class SendNewOrderSingle extends TestUIAction<NewOrderSingleParams>
 	@Override
 	protected Map<String, String> convertRequestParams(NewOrderSingleParams executionReportParams)
 	{
-		Map<String, String> params = new LinkedHashMap<>(this.getServiceParamsMap(executionReportParams));
-		params.putAll(getMgsBodyParamsMap(executionReportParams));
-		return params;
+		return getRequestParamsMap(executionReportParams);
 	}
 
 	@Override
@@ -137,204 +123,84 @@ public class SendNewOrderSingle extends TestUIAction<NewOrderSingleParams>
 	protected void collectActions(NewOrderSingleParams nosParams, TestUIFrameworkContext uiFrameworkContext,
 			ActResult actResult) throws UIFrameworkException {
 		
-		WebBuilderManager builderManager = uiFrameworkContext.createBuilderManager();
-
-		CustomConfiguration configuration = this.framework.getConfiguration();
-		String url ;
-		if (!(configuration instanceof TestUIActConfiguration) || 
-				StringUtils.isEmpty(url = ((TestUIActConfiguration) configuration).getUrl())) {
-			throw new UIFrameworkException("Invalid configuration. Act UI url should be provided");
+		ActUiPage page = new ActUiPage(this, uiFrameworkContext);
+		String actUrl = getActUrl();
+		Map<String, String> serviceParams = ActUiPage.serviceParams(nosParams.getSession(), nosParams.getDictionary(),
+				nosParams.getMessageType());
+		PageState pageState = page.takePageState(actUrl, serviceParams);
+		if (pageState != null && !page.isUnchanged(pageState)) {
+			logger.debug("Page is changed since the previous action, opening it again");
+			pageState = null;
 		}
 
-		// Opening ACT-URL
-		builderManager.open().url(url).build();
-
-		// Waiting 3 sec
-		builderManager.waitAction().seconds(3).build();
-		
-		if (!nosParams.getSession().isEmpty()) {
-			builderManager.waitForElement().seconds(10)
-					.locator(WebLocator.byXPath(String.format("//select[@id='session']/option[text()='%s']",
-							nosParams.getSession()))).build();
-			
-			// Choosing session from dropbox
-			builderManager.sendKeys().locator(WebLocator.byCssSelector("#session")).wait(5).needClick(true)
-					.text(nosParams.getSession() + SendTextExtraButtons.ENTER.handCommand()).build();
-
-			builderManager.waitAction().seconds(1).build();
-		}
-
-		if (!nosParams.getDictionary().isEmpty()) {
-			builderManager.waitForElement().seconds(10)
-					.locator(WebLocator.byXPath(String.format("//select[@id='dictionary']/option[text()='%s']",
-							nosParams.getDictionary()))).build();
-			// Choosing session from dropbox
-			builderManager.sendKeys().locator(WebLocator.byCssSelector("#dictionary")).wait(5).needClick(true)
-					.text(nosParams.getDictionary() + SendTextExtraButtons.ENTER.handCommand()).build();
-
-			builderManager.waitAction().seconds(1).build();
+		EditorFillMode fillMode = getActConfiguration().getEditorFillMode();
+		if (getActConfiguration().isPipelinedSubmit()) {
+			uiFrameworkContext.startPipeline();
+			//result of filling by script is not available until the whole pipeline is sent
+			if (fillMode == EditorFillMode.AUTO) {
+				fillMode = EditorFillMode.SCRIPT;
+			}
 		}
-		
-		if (!nosParams.getMessageType().isEmpty()) {
-			builderManager.waitForElement().seconds(10)
-					.locator(WebLocator.byXPath(String.format("//select[@id='msg-type']/option[text()='%s']",
-							nosParams.getMessageType()))).build();
-			// Choosing msg type from dropbox
-			builderManager.sendKeys().locator(WebLocator.byCssSelector("#msg-type")).wait(5).needClick(true)
-					.text(nosParams.getMessageType() + SendTextExtraButtons.ENTER.handCommand()).build();
 
-			// Waiting 3 sec
-			builderManager.waitAction().seconds(3).build();
+		if (pageState == null) {
+			submitRetryableStep(uiFrameworkContext, "Filling service parameters", step -> {
+				ActUiPage stepPage = page.inStep(step);
+				stepPage.open(actUrl);
+				stepPage.selectServiceParams(nosParams.getSession(), nosParams.getDictionary(), nosParams.getMessageType());
+			});
 		}
+		String previousHref = pageState == null ? null : pageState.getLastResult();
 		
-		uiFrameworkContext.submit("Filling service parameters");
-		
-
-		// Adding fields from script to message
-		WebLocator inputAreaLocator = WebLocator.byCssSelector(".inputarea");
-		builderManager.click().locator(inputAreaLocator).build();
-		builderManager.sendKeysToActive().text(UIUtils.keyCombo(SendTextExtraButtons.CONTROL, "a") + 
-				SendTextExtraButtons.DELETE).build();
-		builderManager.sendKeysToActive().text(SendTextExtraButtons.BACKSPACE.handCommand().repeat(4)).build();
+		//actions of the failed sending step are discarded with its context, so the message is never sent twice
+		TestUIFrameworkContext sendingStep = uiFrameworkContext.newStep();
+		ActUiPage sendingPage = page.inStep(sendingStep);
 		try {
-			builderManager.sendKeysToActive().text(this.createMessageJson(nosParams.getMessage())).build();
-		} catch (JsonProcessingException e) {
+			sendingPage.fillMessage(this.createMessageJson(nosParams.getMessage()), fillMode);
+		} catch (IOException e) {
 			throw new UIFrameworkBuildingException("Cannot build json", e);
 		}
+		sendingPage.send(previousHref);
 
-		// clicking send and extracting table
-		builderManager.click().locator(WebLocator.byXPath("//div[@class='app__buttons']/div[@role='button']")).wait(5).build();
-
-		// Waiting 3 sec
-		builderManager.waitAction().seconds(3).build();
-
-		uiFrameworkContext.submit("Filling message body and sending message");
-		
-		builderManager.getElementAttribute().locator(WebLocator.byXPath("//*[@class='result ok']/pre/a"))
-				.attribute("href").wait(20).build();
-		
-		builderManager.getScreenshot().build();
-
-		RhBatchResponse sending_nos = uiFrameworkContext.submit("Checking sending result");
-		if (sending_nos.getResultList().isEmpty()) {
-			actResult.setErrorInfo("th2-hand didn't return any values (expected URL to rpt-viewer)");
-			actResult.setScriptStatus(ActResult.ActExecutionStatus.EXECUTION_ERROR);
-			return;
-		}
-		ResultDetails resultDetails = sending_nos.getResultList().get(0);
-		String urlRpt = resultDetails.getResult();
-		if (StringUtils.isNotEmpty(resultDetails.getActionId())) {
-			urlRpt = resultDetails.getActionId() + "=" + urlRpt;
-		}
-		actResult.setData(Collections.singletonMap("url", urlRpt));
-	}
-
-	private List<?> convertList (List<?> body) {
-		List<Object> list = new ArrayList<>();
-		for (Object value : body) {
-			if (value instanceof String || value instanceof Number) {
-				list.add(value);
-			} else if (value instanceof GeneratedMessageV3) {
-				list.add(convert((GeneratedMessageV3) value));
-			} else if (value instanceof List<?>) {
-				list.add(convertList((List<?>) value));
-			} else {
-				logger.error("Unknown list value {}", value.getClass().getSimpleName());
-			}
-		}
-		return list;
-	}
-	
-	private Map<String, Object> convert (GeneratedMessageV3 body) {
-		Map<String, Object> param = new LinkedHashMap<>();
-		for (Map.Entry<Descriptors.FieldDescriptor, Object> entry : body.getAllFields().entrySet()) {
-			var key = entry.getKey();
-			var javaType = key.getJavaType();
-			if (javaType == JavaType.STRING || javaType == JavaType.INT) {
-				param.put(key.getName(), entry.getValue());
-			} else if (javaType == JavaType.MESSAGE) {
-				var value = entry.getValue();
-				if (value instanceof GeneratedMessageV3) {
-					param.put(key.getName(), convert((GeneratedMessageV3) value));
-				} else if (value instanceof List<?>) {
-					param.put(key.getName(), convertList((List<?>) value));
-				} else {
-					logger.error("Unknown type for {} {}", key.getName(), value.getClass().getName());
-				}
-			} else {
-				logger.error("Unknown type for {} {}", key.getName(), javaType);
+		awaitCheckpoint();
+		Exception sendingFailure = null;
+		try {
+			submitStep(sendingStep, "Filling message body and sending message");
+		} catch (UIFrameworkException | RuntimeException e) {
+			if (!isTransientHandFailure(e)) {
+				throw e;
 			}
+			//the message may be already sent, so the step is never repeated, its outcome is checked by the result link
+			logger.warn("Sending message failed, checking if it was sent", e);
+			sendingFailure = e;
 		}
-		return param;
-	}
-	
-	private String createMessageJson(NewOrderSingleParams.NewOrderSingleBody body) throws JsonProcessingException {
-		Map<String, Object> json = convert(body);
-
-		ObjectMapper mapper = new ObjectMapper();
-		String str = mapper.writeValueAsString(json);
 		
-		logger.debug("Built json: {}", str);
-
-		return str;
-	}
-
-	@Override
-	public void run(NewOrderSingleParams details)
-	{
-		logger.debug("Executing SendNewOrderSingle");
-		RhSessionID sessionID = getSessionID(details);
-		this.description = getDescription(details);
-
-		ActResult actResult = new ActResult();
-		TestUIFrameworkContext frameworkContext = null;
-		try {
-			frameworkContext = framework.newExecution(sessionID);
-			EventID currentEventId = getParentEventId(details);
-			if (storeParentEvent()) {
-				currentEventId = framework.createEvent(currentEventId, getName(), createAdditionalEventInfo());
-			}
-			frameworkContext.setParentEventId(currentEventId);
-
-			logger.debug("Creating checkpoint");
-			checkpoint = registerCheckPoint(currentEventId);
-			logger.debug("Executing UI steps");
-			this.collectActions(details, frameworkContext, actResult);
-			this.submitActions(frameworkContext, actResult);
-			actResult.setSessionID(sessionID);
-
-			logger.debug("Execution finished");
-		} catch (UIFrameworkException e) {
-			logger.error("Cannot execute", e);
-			actResult.setScriptStatus(ActResult.ActExecutionStatus.ACT_ERROR);
-			actResult.setErrorInfo("Cannot unregister framework session:" + e.getMessage());
-		} finally {
-			if (frameworkContext != null) {
-				framework.onExecutionFinished(frameworkContext);
+		RhBatchResponse sending_nos = submitRetryableStep(uiFrameworkContext, "Checking sending result", step -> {
+			ActUiPage stepPage = page.inStep(step);
+			stepPage.requestResultLink(previousHref);
+			stepPage.requestFingerprint();
+			takeScreenshot(stepPage.getBuilderManager());
+		});
+		if (uiFrameworkContext.isPipelined()) {
+			checkNotCancelled();
+			Histogram.Timer timer = ActMetrics.STEP_DURATION.labels(getMetricsName(), "Sending message").startTimer();
+			try {
+				sending_nos = uiFrameworkContext.submitPipeline("Sending message");
+			} finally {
+				timer.observeDuration();
 			}
+			reportSubmittedSteps(uiFrameworkContext, sending_nos);
 		}
-
-		try {
-			this.processResult(actResult);
-		} catch (UIFrameworkException e) {
-			logger.error("Cannot process act result", e);
+		String urlRpt = ActUiPage.getResultUrl(sending_nos);
+		if (urlRpt == null && sendingFailure != null) {
+			throw new UIFrameworkExecutionException("Message is not sent: " + sendingFailure.getMessage(), sendingFailure);
 		}
-	}
-
-	@Override
-	protected Checkpoint getCheckpoint() {
-		return checkpoint;
-	}
-
-	private Checkpoint registerCheckPoint(EventID parentEventId) {
-		logger.debug("Registering the checkpoint started");
-		CheckpointResponse response = verifierConnector.createCheckpoint(CheckpointRequest.newBuilder()
-				.setParentEventId(parentEventId)
-				.build());
-		if (logger.isDebugEnabled()) {
-			logger.debug("Registering the checkpoint ended. Response " + shortDebugString(response));
+		if (urlRpt == null) {
+			actResult.setErrorInfo("th2-hand didn't return any values (expected URL to rpt-viewer)");
+			actResult.setScriptStatus(ActResult.ActExecutionStatus.EXECUTION_ERROR);
+			return;
 		}
-		return response.getCheckpoint();
+		page.savePageState(actUrl, serviceParams, sending_nos);
+		actResult.setData(Collections.singletonMap("url", urlRpt));
 	}
 
 	@Override
@@ -16,19 +16,46 @@
 
 package com.exactpro.th2.act.actions;
 
+import com.exactpro.th2.act.ActMetrics;
 import com.exactpro.th2.act.ActResult;
+import com.exactpro.th2.act.ResultCache;
+import com.exactpro.th2.act.ScreenshotPolicy;
+import com.exactpro.th2.act.TestUIActConfiguration;
 import com.exactpro.th2.act.framework.TestUIFramework;
 import com.exactpro.th2.act.framework.TestUIFrameworkContext;
 import com.exactpro.th2.act.framework.TestUIFrameworkSessionContext;
+import com.exactpro.th2.act.framework.builders.web.WebBuilderManager;
+import com.exactpro.th2.act.framework.builders.web.WebLocator;
+import com.exactpro.th2.act.framework.exceptions.UIFrameworkBuildingException;
 import com.exactpro.th2.act.framework.exceptions.UIFrameworkException;
+import com.exactpro.th2.act.framework.locators.Locator;
+import com.exactpro.th2.act.framework.locators.UiElement;
+import com.exactpro.th2.act.framework.wait.ConditionWaitBuilder;
+import com.exactpro.th2.act.framework.wait.WaitCondition;
 import com.exactpro.th2.act.grpc.RhBatchResponseDemo;
+import com.exactpro.th2.act.grpc.hand.RhBatchResponse;
 import com.exactpro.th2.common.grpc.Checkpoint;
+import io.grpc.Context;
+import io.grpc.Deadline;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
 import io.grpc.stub.StreamObserver;
+import io.prometheus.client.Gauge;
+import io.prometheus.client.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 public abstract class TestUIAction<T> extends ActAction<T, TestUIFrameworkContext, TestUIFrameworkSessionContext> {
 
+	private static final AtomicLong screenshotCounter = new AtomicLong();
+
 	protected final StreamObserver<RhBatchResponseDemo> responseObserver;
 	protected String description;
+	private Object cacheKey;
+	private boolean screenshotTaken;
+	/** Status of the request if the action is stopped because the request is cancelled */
+	private Status cancellation;
 	
 	public TestUIAction(TestUIFramework framework, StreamObserver<RhBatchResponseDemo> responseObserver) {
 		super(framework);
@@ -43,15 +70,292 @@ public abstract class TestUIAction<T> extends ActAction<T, TestUIFrameworkContex
 		return null;
 	}
 
+	protected TestUIActConfiguration getActConfiguration() {
+		return ((TestUIFramework) framework).getActConfiguration();
+	}
+
+	protected ConditionWaitBuilder waitUntil(WebBuilderManager builderManager, WaitCondition... conditions) {
+		return new ConditionWaitBuilder(builderManager).until(conditions)
+				.pollInterval(getActConfiguration().getWaitPollInterval());
+	}
+
+	protected Locator locator(UiElement element) {
+		return ((TestUIFramework) framework).getLocatorRegistry().get(element);
+	}
+
+	protected WebLocator webLocator(UiElement element) {
+		return locator(element).toWebLocator();
+	}
+
+	/**
+	 * Caps wait of hand action by time left until deadline of the gRPC request, so the script doesn't wait
+	 * for elements after the caller gave up. The time left is rounded up and the wait is at least 1 second,
+	 * because 0 means no wait at all for some hand actions.
+	 */
+	protected int waitSeconds(int seconds) {
+		Deadline deadline = Context.current().getDeadline();
+		if (deadline == null) {
+			return seconds;
+		}
+		long remainingSeconds = (deadline.timeRemaining(TimeUnit.MILLISECONDS) + 999) / 1000;
+		return (int) Math.max(1, Math.min(seconds, remainingSeconds));
+	}
+
+	/**
+	 * Stops the action before the next hand batch if the gRPC request is cancelled or its deadline is exceeded.
+	 * Hand batch being executed is not cancelled, see {@link TestUIFrameworkContext#submit(String)}.
+	 */
+	protected void checkNotCancelled() throws UIFrameworkException {
+		Context context = Context.current();
+		if (context.isCancelled()) {
+			cancellation = cancellationStatus(context);
+			Throwable cause = context.cancellationCause();
+			throw new UIFrameworkException("Request is cancelled" + (cause == null ? "" : ": " + cause.getMessage()), cause);
+		}
+	}
+
+	/**
+	 * @return {@code DEADLINE_EXCEEDED} if deadline of the cancelled context is expired, otherwise {@code CANCELLED}
+	 */
+	public static Status cancellationStatus(Context context) {
+		Deadline deadline = context.getDeadline();
+		Throwable cause = context.cancellationCause();
+		Status status = deadline != null && deadline.isExpired() ? Status.DEADLINE_EXCEEDED : Status.CANCELLED;
+		return cause == null ? status : status.withDescription(cause.getMessage()).withCause(cause);
+	}
+
+	/**
+	 * @return context of the session the action is executed on or {@code null} if it is unknown
+	 */
+	protected TestUIFrameworkSessionContext getSessionContext(TestUIFrameworkContext context) {
+		return ((TestUIFramework) framework).findSessionContext(context.getSessionID());
+	}
+
+	/**
+	 * Forgets the page state of the session, should be called before the action leaves the page.
+	 */
+	protected void resetPageState(TestUIFrameworkContext context) {
+		TestUIFrameworkSessionContext sessionContext = getSessionContext(context);
+		if (sessionContext != null) {
+			sessionContext.setPageState(null);
+		}
+	}
+
+	protected WaitCondition networkQuiet() {
+		return WaitCondition.networkQuiet(getActConfiguration().getNetworkQuiet());
+	}
+
+	/**
+	 * @return key of the cached result or {@code null} if results of the action are not cached.
+	 * Must be the same key HandWinAct looks up before dispatching the action
+	 */
+	protected Object getCacheKey(T input) {
+		return null;
+	}
+
+	/**
+	 * Stores data of the successful result. Cached results are returned by {@link com.exactpro.th2.act.HandWinAct}
+	 * before the action is dispatched, so the action runs only on cache miss.
+	 */
+	private void cacheResult(ActResult actResult) {
+		ResultCache cache = ((TestUIFramework) framework).getResultCache();
+		if (cache == null || cacheKey == null || actResult.getData() == null || actResult.getData().isEmpty()) {
+			return;
+		}
+		if (actResult.getScriptStatus() == null || actResult.getScriptStatus() == ActResult.ActExecutionStatus.SUCCESS) {
+			cache.put(cacheKey, actResult.getData());
+		}
+	}
+
+	/**
+	 * Adds screenshot action if it is required by configured screenshot policy.
+	 * @return {@code true} if the action was added
+	 */
+	protected boolean takeScreenshot(WebBuilderManager builderManager) throws UIFrameworkBuildingException {
+		TestUIActConfiguration configuration = getActConfiguration();
+		switch (configuration.getScreenshotPolicy()) {
+			case ON_FAILURE:
+				return false;
+			case SAMPLED:
+				if (screenshotCounter.getAndIncrement() % Math.max(1, configuration.getScreenshotSampleRate()) != 0) {
+					return false;
+				}
+				//falls through
+			case ALWAYS:
+			default:
+				builderManager.getScreenshot().build();
+				screenshotTaken = true;
+				return true;
+		}
+	}
+
+	/**
+	 * Takes screenshot in separate submit if the action failed and it was not taken by policy.
+	 * Errors are logged only to keep the original failure.
+	 */
+	protected void takeFailureScreenshot(TestUIFrameworkContext context) {
+		if (screenshotTaken || cancellation != null || getActConfiguration().getScreenshotPolicy() == ScreenshotPolicy.ALWAYS) {
+			return;
+		}
+		screenshotTaken = true;
+		try {
+			TestUIFrameworkContext step = context.newStep();
+			step.createBuilderManager().getScreenshot().build();
+			submitStep(step, "Taking screenshot of failure");
+		} catch (UIFrameworkException | RuntimeException e) {
+			getLogger().warn("Cannot take screenshot of failure", e);
+		}
+	}
+
+	protected String getMetricsName() {
+		return getClass().getSimpleName();
+	}
+
+	/**
+	 * Submits collected actions and records duration of the step.
+	 */
+	protected RhBatchResponse submitStep(TestUIFrameworkContext context, String name) throws UIFrameworkException {
+		return submitStep(context, name, name);
+	}
+
+	/**
+	 * @param stepLabel name of the step in metrics, should not contain request specific values
+	 */
+	protected RhBatchResponse submitStep(TestUIFrameworkContext context, String name, String stepLabel) throws UIFrameworkException {
+		if (context.isPipelined()) {
+			return context.submit(name);
+		}
+		checkNotCancelled();
+		Histogram.Timer timer = ActMetrics.STEP_DURATION.labels(getMetricsName(), stepLabel).startTimer();
+		try {
+			return context.submit(name);
+		} finally {
+			timer.observeDuration();
+		}
+	}
+
+	/**
+	 * Collects hand actions of one step.
+	 */
+	@FunctionalInterface
+	protected interface StepActions {
+		/**
+		 * @param step context the actions should be collected in, see {@link TestUIFrameworkContext#newStep()}
+		 */
+		void collect(TestUIFrameworkContext step) throws UIFrameworkException;
+	}
+
+	/**
+	 * Collects and submits step which can be executed again on the same session, e.g. opening a page or reading a result.
+	 * If th2-hand is unavailable, the step is collected and submitted again after exponential backoff
+	 * (see {@code step_retry_*} configuration). Steps with side effects (e.g. sending a message) shouldn't use it.
+	 * Every attempt is collected in a new step context, so actions of the failed attempt are not sent again.
+	 */
+	protected RhBatchResponse submitRetryableStep(TestUIFrameworkContext context, String name, StepActions actions)
+			throws UIFrameworkException {
+		TestUIActConfiguration configuration = getActConfiguration();
+		long backoff = configuration.getStepRetryInitialBackoff();
+		for (int attempt = 1; ; attempt++) {
+			TestUIFrameworkContext step = context.newStep();
+			actions.collect(step);
+			try {
+				return submitStep(step, name);
+			} catch (UIFrameworkException | RuntimeException e) {
+				if (attempt > configuration.getStepRetryAttempts() || !isTransientHandFailure(e) || !canWait(backoff)) {
+					throw e;
+				}
+				getLogger().warn("Step '{}' failed, retrying in {} ms (retry {} of {})", name, backoff, attempt,
+						configuration.getStepRetryAttempts(), e);
+				ActMetrics.STEP_RETRIES.labels(getMetricsName(), name).inc();
+				try {
+					Thread.sleep(backoff);
+				} catch (InterruptedException ie) {
+					Thread.currentThread().interrupt();
+					throw new UIFrameworkException("Interrupted while waiting to retry step " + name, ie);
+				}
+				backoff = Math.min(backoff * 2, configuration.getStepRetryMaxBackoff());
+			}
+		}
+	}
+
+	/**
+	 * @return {@code true} if th2-hand failed to execute the batch because it was unreachable,
+	 * so the failure may disappear on the next call
+	 */
+	protected static boolean isTransientHandFailure(Throwable error) {
+		for (Throwable e = error; e != null; e = e.getCause()) {
+			if (e instanceof StatusRuntimeException) {
+				return ((StatusRuntimeException) e).getStatus().getCode() == Status.Code.UNAVAILABLE;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return {@code false} if deadline of the gRPC request expires before {@code millis} elapse
+	 */
+	private static boolean canWait(long millis) {
+		Deadline deadline = Context.current().getDeadline();
+		return deadline == null || deadline.timeRemaining(TimeUnit.MILLISECONDS) > millis;
+	}
+
+	@Override
+	protected void submitActions(TestUIFrameworkContext context, ActResult actResult) throws UIFrameworkException {
+		checkNotCancelled();
+		Histogram.Timer timer = ActMetrics.STEP_DURATION.labels(getMetricsName(), "Submitting actions").startTimer();
+		try {
+			super.submitActions(context, actResult);
+		} catch (UIFrameworkException e) {
+			takeFailureScreenshot(context);
+			throw e;
+		} finally {
+			timer.observeDuration();
+		}
+		if (actResult.getScriptStatus() != null && actResult.getScriptStatus() != ActResult.ActExecutionStatus.SUCCESS) {
+			takeFailureScreenshot(context);
+		}
+	}
+
 	@Override
 	public void run(T details) {
 		this.description = this.getDescription(details);
+		this.cacheKey = this.getCacheKey(details);
+		Gauge.Child inFlight = ActMetrics.ACTIONS_IN_FLIGHT.labels(getMetricsName());
+		inFlight.inc();
+		Histogram.Timer timer = ActMetrics.ACTION_DURATION.labels(getMetricsName()).startTimer();
+		try {
+			execute(details);
+		} finally {
+			timer.observeDuration();
+			inFlight.dec();
+		}
+	}
+
+	protected void execute(T details) {
 		super.run(details);
 	}
 
 	@Override
 	protected void processResult(ActResult actResult) throws UIFrameworkException
 	{
+		if (cancellation == null && actResult.getScriptStatus() == ActResult.ActExecutionStatus.ACT_ERROR && Context.current().isCancelled()) {
+			// e.g. a remote call failed because the request is cancelled
+			cancellation = cancellationStatus(Context.current());
+		}
+		if (cancellation != null) {
+			ActMetrics.ACTION_RESULTS.labels(getMetricsName(), cancellation.getCode().name()).inc();
+			responseObserver.onError(cancellation.asRuntimeException());
+			return;
+		}
+		cacheResult(actResult);
+		ActMetrics.ACTION_RESULTS.labels(getMetricsName(), actResult.getScriptStatus() == null
+				? ActResult.ActExecutionStatus.SUCCESS.name() : actResult.getScriptStatus().name()).inc();
+
+		responseObserver.onNext(buildResponse(actResult, getCheckpoint()));
+		responseObserver.onCompleted();
+	}
+
+	static RhBatchResponseDemo buildResponse(ActResult actResult, Checkpoint checkpoint) {
 		var response = RhBatchResponseDemo.newBuilder();
 		if (actResult.getData() != null) {
 			response.putAllData(actResult.getData());
@@ -67,13 +371,10 @@ public abstract class TestUIAction<T> extends ActAction<T, TestUIFrameworkContex
 		} else {
 			response.setScriptStatus(RhBatchResponseDemo.ExecutionStatus.SUCCESS);
 		}
-		var checkpoint = getCheckpoint();
 		if (checkpoint != null) {
 			response.setCheckpoint(checkpoint);
 		}
-
-		responseObserver.onNext(response.build());
-		responseObserver.onCompleted();
+		return response.build();
 	}
 
 	protected static RhBatchResponseDemo.ExecutionStatus convertStatus(ActResult.ActExecutionStatus actStatus)
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.act.framework;
+
+import com.exactpro.th2.act.ActConnections;
+import com.exactpro.th2.act.ActMetrics;
+import com.exactpro.th2.act.HandEndpointConfiguration;
+import com.exactpro.th2.act.grpc.hand.RhActionsBatch;
+import com.exactpro.th2.act.grpc.hand.RhBatchGrpc;
+import com.exactpro.th2.act.grpc.hand.RhBatchResponse;
+import com.exactpro.th2.act.grpc.hand.RhSessionID;
+import com.exactpro.th2.act.grpc.hand.RhTargetServer;
+import io.grpc.ConnectivityState;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.prometheus.client.Histogram;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * One th2-hand instance used by {@link HandRouter}. Tracks calls in flight, recent latency of calls
+ * and sessions registered on the instance.
+ */
+public class HandEndpoint {
+
+	/** Weight of the last call in average latency */
+	private static final double LATENCY_WEIGHT = 0.2;
+
+	private final String name;
+	private final ManagedChannel channel;
+	private final RhBatchGrpc.RhBatchBlockingStub stub;
+	private final HandExecutor executor;
+	private final Set<RhSessionID> sessions = ConcurrentHashMap.newKeySet();
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicInteger consecutiveFailures = new AtomicInteger();
+	private final Histogram.Child callDuration;
+	private volatile double latency;
+	private volatile long lastFailureTime;
+	private volatile boolean draining;
+
+	public HandEndpoint(HandEndpointConfiguration configuration, ActConnections<?> connections) {
+		this.name = configuration.getName();
+		this.channel = ManagedChannelBuilder.forAddress(configuration.getHost(), configuration.getPort()).usePlaintext().build();
+		this.stub = RhBatchGrpc.newBlockingStub(channel);
+		this.executor = new EndpointHandExecutor(connections);
+		this.callDuration = ActMetrics.REMOTE_CALL_DURATION.labels("hand:" + name);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public HandExecutor getExecutor() {
+		return executor;
+	}
+
+	Set<RhSessionID> getSessions() {
+		return sessions;
+	}
+
+	public int getInFlight() {
+		return inFlight.get();
+	}
+
+	/**
+	 * @return average duration of recent calls in milliseconds
+	 */
+	public double getLatency() {
+		return latency;
+	}
+
+	/**
+	 * @return estimated time for a new call to be started and finished, less is better
+	 */
+	double getLoad() {
+		return (inFlight.get() + 1) * Math.max(latency, 1);
+	}
+
+	public boolean isDraining() {
+		return draining;
+	}
+
+	void setDraining(boolean draining) {
+		this.draining = draining;
+		ActMetrics.HAND_ENDPOINT_ACTIVE.labels(name).set(draining ? 0 : 1);
+	}
+
+	int getConsecutiveFailures() {
+		return consecutiveFailures.get();
+	}
+
+	long getLastFailureTime() {
+		return lastFailureTime;
+	}
+
+	ConnectivityState getState() {
+		return channel.getState(true);
+	}
+
+	private <T> T call(Supplier<T> call) {
+		inFlight.incrementAndGet();
+		ActMetrics.HAND_CALLS_IN_FLIGHT.labels(name).inc();
+		long start = System.nanoTime();
+		try {
+			T result = call.get();
+			consecutiveFailures.set(0);
+			return result;
+		} catch (StatusRuntimeException e) {
+			if (isTransportFailure(e.getStatus())) {
+				lastFailureTime = System.currentTimeMillis();
+				consecutiveFailures.incrementAndGet();
+			}
+			throw e;
+		} finally {
+			long duration = System.nanoTime() - start;
+			latency = latency == 0 ? duration / 1e6 : latency + LATENCY_WEIGHT * (duration / 1e6 - latency);
+			callDuration.observe(duration / 1e9);
+			ActMetrics.HAND_CALLS_IN_FLIGHT.labels(name).dec();
+			inFlight.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Deadlines are not counted: they are set by act clients and usually mean slow steps, not a broken instance.
+	 */
+	private static boolean isTransportFailure(Status status) {
+		return status.getCode() == Status.Code.UNAVAILABLE;
+	}
+
+	void close() throws InterruptedException {
+		channel.shutdown();
+		if (!channel.awaitTermination(10, TimeUnit.SECONDS)) {
+			channel.shutdownNow();
+		}
+	}
+
+	private class EndpointHandExecutor extends HandExecutor {
+
+		EndpointHandExecutor(ActConnections<?> connections) {
+			super(connections);
+		}
+
+		@Override
+		public RhSessionID register(RhTargetServer targetServer) {
+			return call(() -> stub.register(targetServer));
+		}
+
+		@Override
+		public void unregister(RhSessionID sessionID) {
+			call(() -> stub.unregister(sessionID));
+		}
+
+		@Override
+		public RhBatchResponse execute(RhActionsBatch actionsBatch) {
+			return call(() -> stub.executeRhActionsBatch(actionsBatch));
+		}
+	}
+}
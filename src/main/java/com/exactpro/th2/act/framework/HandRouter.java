@@ -0,0 +1,175 @@
+/*
+ * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.act.framework;
+
+import com.exactpro.th2.act.ActConnections;
+import com.exactpro.th2.act.ActMetrics;
+import com.exactpro.th2.act.HandEndpointConfiguration;
+import com.exactpro.th2.act.framework.exceptions.UIFrameworkException;
+import com.exactpro.th2.act.grpc.hand.RhSessionID;
+import com.exactpro.th2.act.grpc.hand.RhTargetServer;
+import io.grpc.ConnectivityState;
+import io.grpc.StatusRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spreads hand sessions over several th2-hand instances. New sessions are registered on the least loaded
+ * active instance, all later calls on the session go to the instance it was registered on.
+ * Instances which fail or lose connection are drained: they don't get new sessions, but existing sessions
+ * keep working on them. Drained instances become active again when they are reachable and don't fail.
+ * Endpoints are never drained if health checks are disabled.
+ */
+public class HandRouter implements AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(HandRouter.class);
+
+	private static final Comparator<HandEndpoint> BY_LOAD = Comparator.comparingDouble(HandEndpoint::getLoad)
+			.thenComparingInt(endpoint -> endpoint.getSessions().size());
+
+	private final List<HandEndpoint> endpoints = new ArrayList<>();
+	private final Map<RhSessionID, HandEndpoint> sessionEndpoints = new ConcurrentHashMap<>();
+	private final int failureThreshold;
+	private final long healthCheckInterval;
+	private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread thread = new Thread(r, "hand-router");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	public HandRouter(List<HandEndpointConfiguration> configurations, ActConnections<?> connections,
+			long healthCheckInterval, int failureThreshold) {
+		for (HandEndpointConfiguration configuration : configurations) {
+			HandEndpoint endpoint = new HandEndpoint(configuration, connections);
+			endpoint.setDraining(false);
+			endpoints.add(endpoint);
+		}
+		this.failureThreshold = Math.max(1, failureThreshold);
+		this.healthCheckInterval = healthCheckInterval;
+	}
+
+	public void start() {
+		logger.info("Routing hand sessions to {} endpoints", endpoints.size());
+		if (healthCheckInterval > 0) {
+			scheduler.scheduleWithFixedDelay(this::checkHealth, healthCheckInterval, healthCheckInterval, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Registers session on the least loaded active endpoint. Other endpoints are tried if registration fails,
+	 * drained endpoints are used only if there are no active ones.
+	 */
+	public RhSessionID register(RhTargetServer targetServer) throws UIFrameworkException {
+		List<HandEndpoint> candidates = new ArrayList<>(endpoints);
+		candidates.sort(Comparator.comparing(HandEndpoint::isDraining).thenComparing(BY_LOAD));
+		StatusRuntimeException lastError = null;
+		for (HandEndpoint endpoint : candidates) {
+			try {
+				RhSessionID sessionID = endpoint.getExecutor().register(targetServer);
+				endpoint.getSessions().add(sessionID);
+				sessionEndpoints.put(sessionID, endpoint);
+				ActMetrics.HAND_SESSIONS.labels(endpoint.getName()).inc();
+				logger.debug("Session {} is registered on {}", sessionID.getId(), endpoint.getName());
+				return sessionID;
+			} catch (StatusRuntimeException e) {
+				logger.warn("Cannot register session on {}", endpoint.getName(), e);
+				lastError = e;
+				updateState(endpoint);
+			}
+		}
+		throw new UIFrameworkException("Cannot register session on any hand endpoint", lastError);
+	}
+
+	public void unregister(RhSessionID sessionID) {
+		HandEndpoint endpoint = sessionEndpoints.remove(sessionID);
+		if (endpoint == null) {
+			logger.warn("Session {} is not registered via router", sessionID.getId());
+			return;
+		}
+		endpoint.getSessions().remove(sessionID);
+		ActMetrics.HAND_SESSIONS.labels(endpoint.getName()).dec();
+		endpoint.getExecutor().unregister(sessionID);
+	}
+
+	/**
+	 * @return executor of endpoint the session is registered on or {@code null} if the session is unknown
+	 */
+	public HandExecutor getExecutor(RhSessionID sessionID) {
+		HandEndpoint endpoint = sessionEndpoints.get(sessionID);
+		return endpoint == null ? null : endpoint.getExecutor();
+	}
+
+	/**
+	 * @return load of endpoint the session is registered on, less is better
+	 */
+	public double getLoad(RhSessionID sessionID) {
+		HandEndpoint endpoint = sessionEndpoints.get(sessionID);
+		return endpoint == null ? Double.MAX_VALUE : endpoint.getLoad();
+	}
+
+	public boolean isDraining(RhSessionID sessionID) {
+		HandEndpoint endpoint = sessionEndpoints.get(sessionID);
+		return endpoint != null && endpoint.isDraining();
+	}
+
+	private void checkHealth() {
+		for (HandEndpoint endpoint : endpoints) {
+			try {
+				updateState(endpoint);
+			} catch (RuntimeException e) {
+				logger.error("Cannot check state of hand endpoint {}", endpoint.getName(), e);
+			}
+		}
+	}
+
+	private void updateState(HandEndpoint endpoint) {
+		if (healthCheckInterval <= 0) {
+			//without health checks a drained endpoint would never become active again
+			return;
+		}
+		ConnectivityState state = endpoint.getState();
+		boolean unreachable = state == ConnectivityState.TRANSIENT_FAILURE || state == ConnectivityState.SHUTDOWN;
+		boolean failing = endpoint.getConsecutiveFailures() >= failureThreshold
+				&& System.currentTimeMillis() - endpoint.getLastFailureTime() <= healthCheckInterval;
+		if ((unreachable || failing) && !endpoint.isDraining()) {
+			logger.warn("Hand endpoint {} is unhealthy (state: {}, failed calls: {}), draining it", endpoint.getName(),
+					state, endpoint.getConsecutiveFailures());
+			endpoint.setDraining(true);
+		} else if (!unreachable && !failing && endpoint.isDraining() && state == ConnectivityState.READY) {
+			logger.info("Hand endpoint {} is healthy again", endpoint.getName());
+			endpoint.setDraining(false);
+		}
+	}
+
+	@Override
+	public void close() throws InterruptedException {
+		scheduler.shutdownNow();
+		for (HandEndpoint endpoint : endpoints) {
+			endpoint.close();
+		}
+		logger.info("Hand router closed");
+	}
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.act.framework;
+
+import com.exactpro.th2.act.framework.builders.web.WebBuilderManager;
+import com.exactpro.th2.act.framework.exceptions.UIFrameworkException;
+import com.exactpro.th2.act.grpc.hand.RhSessionID;
+import com.exactpro.th2.act.grpc.hand.RhTargetServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a number of registered hand sessions with pages already loaded,
+ * so actions without explicit session don't pay browser start-up on the request path.
+ * Broken sessions are unregistered and replaced in background.
+ */
+public class HandSessionPool implements AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(HandSessionPool.class);
+
+	private final TestUIFramework framework;
+	private final String target;
+	private final List<String> warmUpUrls;
+	private final Queue<RhSessionID> idleSessions = new ConcurrentLinkedQueue<>();
+	private final Queue<CompletableFuture<RhSessionID>> waiters = new ArrayDeque<>();
+	private final Set<RhSessionID> sessions = ConcurrentHashMap.newKeySet();
+	private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+		Thread thread = new Thread(r, "hand-session-pool");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private volatile boolean closed;
+
+	public HandSessionPool(TestUIFramework framework, String target, List<String> warmUpUrls) {
+		this.framework = framework;
+		this.target = target;
+		this.warmUpUrls = List.copyOf(warmUpUrls);
+	}
+
+	public void start(int size) {
+		logger.info("Starting hand session pool with {} sessions", size);
+		for (int i = 0; i < size; i++) {
+			executor.execute(this::addSession);
+		}
+	}
+
+	/**
+	 * Leases idle session or waits for one without blocking the caller.
+	 * @return future completed with the session or failed with {@link UIFrameworkException}
+	 * if there is no free session during {@code timeout}
+	 */
+	public CompletableFuture<RhSessionID> lease(long timeout, TimeUnit unit) {
+		if (closed) {
+			return CompletableFuture.failedFuture(new UIFrameworkException("Hand session pool is closed"));
+		}
+		CompletableFuture<RhSessionID> future = new CompletableFuture<>();
+		RhSessionID sessionID;
+		synchronized (this) {
+			sessionID = idleSessions.poll();
+			if (sessionID != null) {
+				HandRouter router = framework.getHandRouter();
+				if (router != null) {
+					sessionID = leastLoaded(router, sessionID);
+				}
+			} else {
+				waiters.add(future);
+			}
+		}
+		if (sessionID != null) {
+			logger.debug("Session {} leased", sessionID.getId());
+			future.complete(sessionID);
+			return future;
+		}
+		CompletableFuture.delayedExecutor(timeout, unit).execute(() -> future.completeExceptionally(
+				new UIFrameworkException("No free hand session in pool during " + unit.toMillis(timeout) + " ms")));
+		future.whenComplete((leased, e) -> {
+			if (e != null) {
+				synchronized (this) {
+					waiters.remove(future);
+				}
+			}
+		});
+		return future;
+	}
+
+	/**
+	 * Passes the session to the first waiting lease or returns it to idle sessions.
+	 * Leases are completed outside of the lock because their callbacks dispatch actions.
+	 */
+	private void offer(RhSessionID sessionID) {
+		while (true) {
+			CompletableFuture<RhSessionID> waiter;
+			synchronized (this) {
+				waiter = waiters.poll();
+				if (waiter == null) {
+					idleSessions.add(sessionID);
+					return;
+				}
+			}
+			if (waiter.complete(sessionID)) {
+				logger.debug("Session {} leased", sessionID.getId());
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Swaps the leased session with an idle one on less loaded hand endpoint if there is such session.
+	 */
+	private RhSessionID leastLoaded(HandRouter router, RhSessionID leased) {
+		RhSessionID best = leased;
+		double bestLoad = router.isDraining(leased) ? Double.MAX_VALUE : router.getLoad(leased);
+		for (RhSessionID candidate : idleSessions) {
+			double load = router.isDraining(candidate) ? Double.MAX_VALUE : router.getLoad(candidate);
+			if (load < bestLoad) {
+				best = candidate;
+				bestLoad = load;
+			}
+		}
+		if (best != leased && idleSessions.remove(best)) {
+			idleSessions.add(leased);
+			return best;
+		}
+		return leased;
+	}
+
+	/**
+	 * Returns the session to the pool. Broken sessions and sessions on drained hand endpoints are replaced.
+	 */
+	public void release(RhSessionID sessionID, boolean healthy) {
+		if (!sessions.contains(sessionID)) {
+			return;
+		}
+		HandRouter router = framework.getHandRouter();
+		if (healthy && router != null && router.isDraining(sessionID)) {
+			logger.info("Session {} is on drained hand endpoint", sessionID.getId());
+			healthy = false;
+		}
+		if (closed) {
+			//sessions are unregistered by close()
+			return;
+		}
+		if (healthy) {
+			logger.debug("Session {} returned to pool", sessionID.getId());
+			offer(sessionID);
+			return;
+		}
+		logger.warn("Session {} is replaced in pool", sessionID.getId());
+		try {
+			executor.execute(() -> {
+				removeSession(sessionID);
+				addSession();
+			});
+		} catch (RejectedExecutionException e) {
+			logger.debug("Pool is closed while session {} is released", sessionID.getId());
+		}
+	}
+
+	private void addSession() {
+		if (closed) {
+			return;
+		}
+		RhSessionID sessionID = null;
+		try {
+			sessionID = framework.registerHandSession(RhTargetServer.newBuilder().setTarget(target).build());
+			framework.registerSession(sessionID);
+			sessions.add(sessionID);
+			warmUp(sessionID);
+			offer(sessionID);
+			logger.info("Session {} added to pool", sessionID.getId());
+		} catch (Exception e) {
+			logger.error("Cannot add session to pool", e);
+			if (sessionID != null) {
+				removeSession(sessionID);
+			}
+		}
+	}
+
+	/**
+	 * Opens warm-up urls one by one in the session tab, so their resources are in the browser cache
+	 * and the last one stays loaded for the next action.
+	 */
+	private void warmUp(RhSessionID sessionID) throws UIFrameworkException {
+		if (warmUpUrls.isEmpty()) {
+			return;
+		}
+		TestUIFrameworkContext context = framework.newExecution(sessionID);
+		try {
+			WebBuilderManager builderManager = context.createBuilderManager();
+			for (String url : warmUpUrls) {
+				builderManager.open().url(url).build();
+			}
+			context.submit("Warming up session");
+		} finally {
+			framework.onExecutionFinished(context);
+		}
+	}
+
+	private void removeSession(RhSessionID sessionID) {
+		sessions.remove(sessionID);
+		idleSessions.remove(sessionID);
+		try {
+			framework.unregisterSession(sessionID);
+		} catch (UIFrameworkException e) {
+			logger.error("Cannot unregister framework session {}", sessionID.getId(), e);
+		}
+		try {
+			framework.unregisterHandSession(sessionID);
+		} catch (Exception e) {
+			logger.error("Cannot unregister hand session {}", sessionID.getId(), e);
+		}
+	}
+
+	@Override
+	public void close() throws InterruptedException {
+		closed = true;
+		executor.shutdown();
+		if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+			executor.shutdownNow();
+		}
+		synchronized (this) {
+			CompletableFuture<RhSessionID> waiter;
+			while ((waiter = waiters.poll()) != null) {
+				waiter.completeExceptionally(new UIFrameworkException("Hand session pool is closed"));
+			}
+		}
+		sessions.forEach(this::removeSession);
+		logger.info("Hand session pool closed");
+	}
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.act.framework;
+
+public class JsUtils {
+
+	private static final char LINE_SEPARATOR = 0x2028;
+	private static final char PARAGRAPH_SEPARATOR = 0x2029;
+
+	private JsUtils() {
+	}
+
+	/**
+	 * @return {@code value} as JS string literal in single quotes
+	 */
+	public static String quote(String value) {
+		StringBuilder sb = new StringBuilder(value.length() + 16).append('\'');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+				case '\'':
+				case '\\':
+					sb.append('\\').append(c);
+					break;
+				case '\n':
+					sb.append("\\n");
+					break;
+				case '\r':
+					sb.append("\\r");
+					break;
+				case LINE_SEPARATOR:
+					sb.append("\\u2028");
+					break;
+				case PARAGRAPH_SEPARATOR:
+					sb.append("\\u2029");
+					break;
+				default:
+					sb.append(c);
+			}
+		}
+		return sb.append('\'').toString();
+	}
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.act.framework;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Last known state of the page opened in hand session: requested url and selected values
+ * with the fingerprint of the page read in the browser after the last action.
+ */
+public class PageState {
+
+	private final String url;
+	private final Map<String, String> selectedValues;
+	private final String fingerprint;
+	private final String lastResult;
+
+	/**
+	 * @param fingerprint page state read in the browser, the page is reused only if it is not changed
+	 * @param lastResult the last result shown on the page
+	 */
+	public PageState(String url, Map<String, String> selectedValues, String fingerprint, String lastResult) {
+		this.url = url;
+		this.selectedValues = Map.copyOf(selectedValues);
+		this.fingerprint = fingerprint;
+		this.lastResult = lastResult;
+	}
+
+	public boolean matches(String url, Map<String, String> selectedValues) {
+		return Objects.equals(this.url, url) && this.selectedValues.equals(selectedValues);
+	}
+
+	public String getFingerprint() {
+		return fingerprint;
+	}
+
+	public String getLastResult() {
+		return lastResult;
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2020-2020 Exactpro (Exactpro Systems Limited)
+ * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,23 +17,294 @@
 package com.exactpro.th2.act.framework;
 
 import com.exactpro.th2.act.ActConnections;
+import com.exactpro.th2.act.EventPublisher;
+import com.exactpro.th2.act.ReportDataProvider;
+import com.exactpro.th2.act.ResultCache;
+import com.exactpro.th2.act.TestUIActConfiguration;
 import com.exactpro.th2.act.configuration.CustomConfiguration;
+import com.exactpro.th2.act.framework.exceptions.UIFrameworkException;
+import com.exactpro.th2.act.framework.locators.LocatorRegistry;
 import com.exactpro.th2.act.grpc.hand.RhSessionID;
+import com.exactpro.th2.act.grpc.hand.RhTargetServer;
+import com.exactpro.th2.common.event.Event;
+import com.exactpro.th2.common.grpc.EventBatch;
+import com.exactpro.th2.common.grpc.EventID;
+import com.exactpro.th2.common.schema.message.MessageRouter;
+import io.grpc.Context;
+import io.grpc.Deadline;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 public class TestUIFramework extends UIFramework<TestUIFrameworkContext, TestUIFrameworkSessionContext>
 {
+	private static final int REMOTE_CALL_THREADS = 16;
+
+	private final ActConnections<? extends CustomConfiguration> connections;
+	private final Map<RhSessionID, TestUIFrameworkSessionContext> sessionContexts = new ConcurrentHashMap<>();
+	private volatile HandRouter handRouter;
+	private HandSessionPool sessionPool;
+	private volatile ReportDataProvider dataProvider;
+	private volatile ResultCache resultCache;
+	private volatile EventPublisher eventPublisher;
+	private volatile MessageRouter<EventBatch> eventRouter;
+	private volatile LocatorRegistry locatorRegistry;
+	/** Calls to check1 and estore made by actions in background */
+	private final ExecutorService remoteCallsExecutor = Executors.newFixedThreadPool(REMOTE_CALL_THREADS, r -> {
+		Thread thread = new Thread(r, "act-remote-call");
+		thread.setDaemon(true);
+		return thread;
+	});
+
 	public TestUIFramework(ActConnections<? extends CustomConfiguration> connections)
 	{
 		super(connections);
+		this.connections = connections;
 	}
 
 	@Override
 	protected TestUIFrameworkContext createContext(RhSessionID rhSessionID, HandExecutor handExecutor) {
-		return new TestUIFrameworkContext(rhSessionID, handExecutor);
+		HandRouter router = handRouter;
+		HandExecutor sessionExecutor = router == null ? null : router.getExecutor(rhSessionID);
+		return new TestUIFrameworkContext(rhSessionID, sessionExecutor == null ? handExecutor : sessionExecutor);
 	}
 
 	@Override
 	protected TestUIFrameworkSessionContext createSessionContext(TestUIFrameworkContext testUIFrameworkContext) {
-		return new TestUIFrameworkSessionContext(testUIFrameworkContext);
+		TestUIFrameworkSessionContext sessionContext = new TestUIFrameworkSessionContext(testUIFrameworkContext);
+		sessionContexts.put(testUIFrameworkContext.getSessionID(), sessionContext);
+		return sessionContext;
+	}
+
+	@Override
+	public void unregisterSession(RhSessionID sessionID) throws UIFrameworkException {
+		sessionContexts.remove(sessionID);
+		super.unregisterSession(sessionID);
+	}
+
+	/**
+	 * @return context of registered session or {@code null} if the session is not registered
+	 */
+	public TestUIFrameworkSessionContext findSessionContext(RhSessionID sessionID) {
+		return sessionContexts.get(sessionID);
+	}
+
+	public TestUIActConfiguration getActConfiguration() {
+		CustomConfiguration configuration = getConfiguration();
+		return configuration instanceof TestUIActConfiguration ? (TestUIActConfiguration) configuration : new TestUIActConfiguration();
+	}
+
+	public LocatorRegistry getLocatorRegistry() {
+		LocatorRegistry registry = locatorRegistry;
+		if (registry == null) {
+			synchronized (this) {
+				if (locatorRegistry == null) {
+					TestUIActConfiguration configuration = getActConfiguration();
+					locatorRegistry = new LocatorRegistry(configuration.getLocators(), configuration.getUiVersions());
+				}
+				registry = locatorRegistry;
+			}
+		}
+		return registry;
+	}
+
+	/**
+	 * @return publisher of action events or {@code null} if events are stored synchronously by framework
+	 */
+	public EventPublisher getEventPublisher() {
+		return eventPublisher;
+	}
+
+	public void setEventPublisher(EventPublisher eventPublisher) {
+		this.eventPublisher = eventPublisher;
+	}
+
+	public void setEventRouter(MessageRouter<EventBatch> eventRouter) {
+		this.eventRouter = eventRouter;
+	}
+
+	/**
+	 * Stores event created by the act itself. ID of the event is generated locally (see {@link #eventId(Event)}),
+	 * so it can be used as parent ID before the event is stored. The event is queued if {@link EventPublisher}
+	 * is set, otherwise it is sent by the caller thread.
+	 */
+	public void storeEvent(EventID parentId, Event event) throws IOException {
+		EventPublisher publisher = eventPublisher;
+		if (publisher != null) {
+			publisher.publish(parentId, event);
+			return;
+		}
+		MessageRouter<EventBatch> router = eventRouter;
+		if (router == null) {
+			throw new IOException("Event router is not set");
+		}
+		router.send(event.toBatchProto(parentId));
+	}
+
+	public static EventID eventId(Event event) {
+		return EventID.newBuilder().setId(event.getId()).build();
+	}
+
+	/**
+	 * @return client of rpt-data-provider or {@code null} if its url is not configured
+	 */
+	public ReportDataProvider getDataProvider() {
+		ReportDataProvider provider = dataProvider;
+		if (provider == null) {
+			TestUIActConfiguration configuration = getActConfiguration();
+			if (StringUtils.isEmpty(configuration.getDataProviderUrl())) {
+				return null;
+			}
+			synchronized (this) {
+				if (dataProvider == null) {
+					dataProvider = new ReportDataProvider(configuration.getDataProviderUrl(),
+							Duration.ofMillis(configuration.getDataProviderTimeout()));
+				}
+				provider = dataProvider;
+			}
+		}
+		return provider;
+	}
+
+	/**
+	 * @return cache of extracted messages or {@code null} if it is disabled
+	 */
+	public ResultCache getResultCache() {
+		ResultCache cache = resultCache;
+		if (cache == null) {
+			TestUIActConfiguration configuration = getActConfiguration();
+			if (configuration.getResultCacheSize() <= 0 || configuration.getResultCacheTtl() <= 0) {
+				return null;
+			}
+			synchronized (this) {
+				if (resultCache == null) {
+					resultCache = new ResultCache(configuration.getResultCacheSize(), configuration.getResultCacheTtl());
+				}
+				cache = resultCache;
+			}
+		}
+		return cache;
+	}
+
+	/**
+	 * Starts routing of hand sessions over configured hand endpoints.
+	 * Does nothing if endpoints are not configured, the hand from gRPC router configuration is used then.
+	 */
+	public synchronized void startHandRouter() {
+		TestUIActConfiguration configuration = getActConfiguration();
+		if (handRouter != null || configuration.getHandEndpoints().isEmpty()) {
+			return;
+		}
+		HandRouter router = new HandRouter(configuration.getHandEndpoints(), connections,
+				configuration.getHandHealthCheckInterval(), configuration.getHandFailureThreshold());
+		router.start();
+		handRouter = router;
+	}
+
+	/**
+	 * @return router of hand sessions or {@code null} if the only hand is used
+	 */
+	public HandRouter getHandRouter() {
+		return handRouter;
+	}
+
+	public RhSessionID registerHandSession(RhTargetServer targetServer) throws UIFrameworkException {
+		HandRouter router = handRouter;
+		return router == null ? getHandExecutor().register(targetServer) : router.register(targetServer);
+	}
+
+	public void unregisterHandSession(RhSessionID sessionID) {
+		HandRouter router = handRouter;
+		if (router == null) {
+			getHandExecutor().unregister(sessionID);
+		} else {
+			router.unregister(sessionID);
+		}
+	}
+
+	public synchronized void closeHandRouter() throws InterruptedException {
+		if (handRouter != null) {
+			handRouter.close();
+			handRouter = null;
+		}
+	}
+
+	/**
+	 * Registers and warms up hand sessions which are leased to actions called without session ID.
+	 * Does nothing if pool size is not configured.
+	 */
+	public synchronized void startSessionPool() {
+		TestUIActConfiguration configuration = getActConfiguration();
+		if (sessionPool != null || configuration.getSessionPoolSize() <= 0) {
+			return;
+		}
+		List<String> warmUpUrls = new ArrayList<>();
+		if (StringUtils.isNotEmpty(configuration.getRptViewerUrl())) {
+			warmUpUrls.add(configuration.getRptViewerUrl());
+		}
+		if (StringUtils.isNotEmpty(configuration.getUrl())) {
+			warmUpUrls.add(configuration.getUrl());
+		}
+		sessionPool = new HandSessionPool(this, configuration.getSessionPoolTarget(), warmUpUrls);
+		sessionPool.start(configuration.getSessionPoolSize());
+	}
+
+	public boolean isSessionPoolEnabled() {
+		return sessionPool != null;
+	}
+
+	/**
+	 * Leases free pooled session, waiting for it not longer than lease timeout and deadline of the current gRPC request.
+	 * @return future completed with the session or failed with {@link UIFrameworkException}
+	 */
+	public CompletableFuture<RhSessionID> leaseSession() {
+		if (sessionPool == null) {
+			return CompletableFuture.failedFuture(new UIFrameworkException("Session is not specified and session pool is disabled"));
+		}
+		long timeout = getActConfiguration().getSessionPoolLeaseTimeout();
+		Deadline deadline = Context.current().getDeadline();
+		if (deadline != null) {
+			timeout = Math.max(0, Math.min(timeout, deadline.timeRemaining(TimeUnit.MILLISECONDS)));
+		}
+		return sessionPool.lease(timeout, TimeUnit.MILLISECONDS);
+	}
+
+	public void releaseSession(RhSessionID sessionID, boolean healthy) {
+		if (sessionPool != null) {
+			sessionPool.release(sessionID, healthy);
+		}
+	}
+
+	public synchronized void closeSessionPool() throws InterruptedException {
+		if (sessionPool != null) {
+			sessionPool.close();
+			sessionPool = null;
+		}
+	}
+
+	/**
+	 * @return executor of background calls to check1 and estore, e.g. storing parent events and creating checkpoints
+	 */
+	public ExecutorService getRemoteCallsExecutor() {
+		return remoteCallsExecutor;
+	}
+
+	/**
+	 * Finishes queued background calls, so their events are stored before the event publisher and routers are closed.
+	 */
+	public void closeRemoteCalls() throws InterruptedException {
+		remoteCallsExecutor.shutdown();
+		if (!remoteCallsExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+			remoteCallsExecutor.shutdownNow();
+		}
 	}
 }
@@ -17,15 +17,92 @@
 package com.exactpro.th2.act.framework;
 
 import com.exactpro.th2.act.framework.builders.web.WebBuilderManager;
+import com.exactpro.th2.act.framework.exceptions.UIFrameworkException;
+import com.exactpro.th2.act.grpc.hand.RhBatchResponse;
 import com.exactpro.th2.act.grpc.hand.RhSessionID;
+import io.grpc.Context;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 public class TestUIFrameworkContext extends UIWebFrameworkContext {
+
+	private final HandExecutor handExecutor;
+	private List<String> pipelinedSteps;
+	private List<String> submittedSteps = Collections.emptyList();
 	
 	public TestUIFrameworkContext(RhSessionID sessionID, HandExecutor handExecutor) {
 		super(sessionID, handExecutor);
+		this.handExecutor = handExecutor;
+	}
+
+	/**
+	 * Creates context of one step (hand batch) of the action on the same session and parent event.
+	 * Actions collected in the step context are sent only by its own submit, so if the submit fails they are
+	 * discarded with the context and never get to the next batch. In pipelined mode all steps are sent
+	 * in one batch, so this context is returned.
+	 */
+	public TestUIFrameworkContext newStep() {
+		if (isPipelined()) {
+			return this;
+		}
+		TestUIFrameworkContext step = new TestUIFrameworkContext(getSessionID(), handExecutor);
+		step.setParentEventId(getParentEventId());
+		return step;
 	}
 
 	public WebBuilderManager createBuilderManager() {
 		return new WebBuilderManager(this);
 	}
+
+	/**
+	 * Starts pipelined mode. Until {@link #submitPipeline(String)} is called {@link #submit(String)} doesn't
+	 * send actions to hand and returns {@code null}, it only records the step name.
+	 */
+	public void startPipeline() {
+		pipelinedSteps = new ArrayList<>();
+	}
+
+	public boolean isPipelined() {
+		return pipelinedSteps != null;
+	}
+
+	@Override
+	public RhBatchResponse submit(String name) throws UIFrameworkException {
+		if (pipelinedSteps != null) {
+			pipelinedSteps.add(name);
+			return null;
+		}
+		return submitToHand(name);
+	}
+
+	/**
+	 * Sends actions of all recorded steps in one hand batch and stops pipelined mode.
+	 * Names of the sent steps are available via {@link #getSubmittedSteps()}.
+	 */
+	public RhBatchResponse submitPipeline(String name) throws UIFrameworkException {
+		submittedSteps = pipelinedSteps == null ? Collections.emptyList() : pipelinedSteps;
+		pipelinedSteps = null;
+		return submitToHand(name);
+	}
+
+	public List<String> getSubmittedSteps() {
+		return submittedSteps;
+	}
+
+	/**
+	 * Sends the batch outside of cancellation of the gRPC request. Hand doesn't stop the browser if the call
+	 * is cancelled, so the batch is awaited and the next action on the session doesn't overlap with it.
+	 * Waits inside the batch are capped by the request deadline, cancelled actions stop before the next step.
+	 */
+	private RhBatchResponse submitToHand(String name) throws UIFrameworkException {
+		Context uncancellable = Context.current().fork();
+		Context previous = uncancellable.attach();
+		try {
+			return super.submit(name);
+		} finally {
+			uncancellable.detach(previous);
+		}
+	}
 }
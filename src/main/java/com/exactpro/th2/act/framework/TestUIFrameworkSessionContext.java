@@ -18,7 +18,20 @@ package com.exactpro.th2.act.framework;
 
 public class TestUIFrameworkSessionContext extends UIFrameworkSessionContext<TestUIFrameworkContext> {
 	
+	private volatile PageState pageState;
+
 	public TestUIFrameworkSessionContext(TestUIFrameworkContext context) {
 		super(context);
 	}
+
+	/**
+	 * @return last known state of the page or {@code null} if it is unknown
+	 */
+	public PageState getPageState() {
+		return pageState;
+	}
+
+	public void setPageState(PageState pageState) {
+		this.pageState = pageState;
+	}
 }
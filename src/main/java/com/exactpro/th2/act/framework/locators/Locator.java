@@ -0,0 +1,115 @@
+/*
+ * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exactpro.th2.act.framework.locators;
+
+import com.exactpro.th2.act.framework.builders.web.WebLocator;
+
+import static com.exactpro.th2.act.framework.JsUtils.quote;
+
+/**
+ * Element locator which can be used both by hand actions and by browser scripts.
+ * CSS and XPath locators can be scoped to a container written in the same language.
+ */
+public class Locator {
+
+	public enum Kind {
+		ID, CSS, XPATH
+	}
+
+	private final Kind kind;
+	private final String value;
+
+	private Locator(Kind kind, String value) {
+		this.kind = kind;
+		this.value = value;
+	}
+
+	public static Locator byId(String id) {
+		return new Locator(Kind.ID, id);
+	}
+
+	public static Locator byCss(String selector) {
+		return new Locator(Kind.CSS, selector);
+	}
+
+	public static Locator byXPath(String xpath) {
+		return new Locator(Kind.XPATH, xpath);
+	}
+
+	/**
+	 * @param container CSS selector or XPath of the element to search in
+	 * @throws IllegalArgumentException if the locator is searched by ID or its XPath is not a location path,
+	 * e.g. {@code (//div)[2]}, so it cannot be appended to the container
+	 */
+	public Locator within(String container) {
+		if (container == null || container.isEmpty()) {
+			return this;
+		}
+		switch (kind) {
+			case CSS:
+				return new Locator(kind, container + ' ' + value);
+			case XPATH:
+				if (value.startsWith("(")) {
+					throw new IllegalArgumentException("XPath in parentheses cannot be searched in container: " + value);
+				}
+				return new Locator(kind, container + (value.startsWith("/") ? value : '/' + value));
+			case ID:
+			default:
+				throw new IllegalArgumentException("Locator by id cannot be searched in container: " + value);
+		}
+	}
+
+	public Kind getKind() {
+		return kind;
+	}
+
+	public String getValue() {
+		return value;
+	}
+
+	public WebLocator toWebLocator() {
+		switch (kind) {
+			case ID:
+				return WebLocator.byId(value);
+			case CSS:
+				return WebLocator.byCssSelector(value);
+			case XPATH:
+			default:
+				return WebLocator.byXPath(value);
+		}
+	}
+
+	/**
+	 * @return JS expression which evaluates to the first matching element or {@code null}
+	 */
+	public String toJsNode() {
+		switch (kind) {
+			case ID:
+				return "document.getElementById(" + quote(value) + ")";
+			case CSS:
+				return "document.querySelector(" + quote(value) + ")";
+			case XPATH:
+			default:
+				return "document.evaluate(" + quote(value)
+						+ ", document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue";
+		}
+	}
+
+	@Override
+	public String toString() {
+		return kind.name().toLowerCase() + ": " + value;
+	}
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exactpro.th2.act.framework.locators;
+
+import com.exactpro.th2.act.LocatorConfiguration;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Resolves locators of UI elements. Configured locators are looked up by application, its configured version
+ * and element name; the {@code default} version is used if there is no locator for the configured one.
+ * Elements without configured locators use {@link UiElement#getDefaultLocator()}.
+ */
+public class LocatorRegistry {
+
+	public static final String ACT_UI = "act-ui";
+	public static final String RPT_VIEWER = "rpt-viewer";
+	public static final String DEFAULT_VERSION = "default";
+
+	private final Map<UiElement, Locator> locators = new EnumMap<>(UiElement.class);
+
+	/**
+	 * @param configuration locators by application, version and element name
+	 * @param versions versions of applications
+	 */
+	public LocatorRegistry(Map<String, Map<String, Map<String, LocatorConfiguration>>> configuration, Map<String, String> versions) {
+		for (UiElement element : UiElement.values()) {
+			Map<String, Map<String, LocatorConfiguration>> byVersion = configuration.get(element.getApplication());
+			LocatorConfiguration locator = null;
+			if (byVersion != null) {
+				String version = versions.getOrDefault(element.getApplication(), DEFAULT_VERSION);
+				locator = find(byVersion, version, element.getName());
+				if (locator == null) {
+					locator = find(byVersion, DEFAULT_VERSION, element.getName());
+				}
+			}
+			locators.put(element, locator == null ? element.getDefaultLocator() : toLocator(element, locator));
+		}
+	}
+
+	public Locator get(UiElement element) {
+		return locators.get(element);
+	}
+
+	private static LocatorConfiguration find(Map<String, Map<String, LocatorConfiguration>> byVersion, String version, String name) {
+		Map<String, LocatorConfiguration> byName = byVersion.get(version);
+		return byName == null ? null : byName.get(name);
+	}
+
+	private static Locator toLocator(UiElement element, LocatorConfiguration configuration) {
+		Locator locator;
+		if (StringUtils.isNotEmpty(configuration.getId())) {
+			locator = Locator.byId(configuration.getId());
+		} else if (StringUtils.isNotEmpty(configuration.getCss())) {
+			locator = Locator.byCss(configuration.getCss());
+		} else if (StringUtils.isNotEmpty(configuration.getXpath())) {
+			locator = Locator.byXPath(configuration.getXpath());
+		} else {
+			throw new IllegalArgumentException("Locator of " + element.getApplication() + '/' + element.getName()
+					+ " should have id, css or xpath");
+		}
+		try {
+			return locator.within(configuration.getContainer());
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Locator of " + element.getApplication() + '/' + element.getName()
+					+ " is invalid: " + e.getMessage(), e);
+		}
+	}
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.exactpro.th2.act.framework.locators;
+
+/**
+ * Elements of act-ui and rpt-viewer used by actions with their default locators.
+ * Locators can be overridden in configuration per application and version, see {@link LocatorRegistry}.
+ */
+public enum UiElement {
+
+	ACT_EDITOR_INPUT(LocatorRegistry.ACT_UI, "editor-input", Locator.byCss(".inputarea")),
+	ACT_SEND_BUTTON(LocatorRegistry.ACT_UI, "send-button", Locator.byCss("div.app__buttons > div[role='button']")),
+	ACT_SESSION_SELECT(LocatorRegistry.ACT_UI, "session-select", Locator.byId("session")),
+	ACT_DICTIONARY_SELECT(LocatorRegistry.ACT_UI, "dictionary-select", Locator.byId("dictionary")),
+	ACT_MESSAGE_TYPE_SELECT(LocatorRegistry.ACT_UI, "msg-type-select", Locator.byId("msg-type")),
+	ACT_SEND_RESULT(LocatorRegistry.ACT_UI, "send-result", Locator.byCss(".result > pre")),
+	ACT_RESULT_LINK(LocatorRegistry.ACT_UI, "result-link", Locator.byCss(".result.ok > pre > a")),
+
+	RPT_EVENT_EXPAND(LocatorRegistry.RPT_VIEWER, "event-expand", Locator.byXPath("//div[@class='event-tree-card' and @style='padding-left: 20px;']"
+			+ "//div[contains(@class, 'selected')]/../div[contains(@class, 'expand-icon')]")),
+	RPT_SEND_EVENT(LocatorRegistry.RPT_VIEWER, "send-event", Locator.byCss(".event-header-card__title[title^='Send']")),
+	RPT_ATTACHED_MESSAGE(LocatorRegistry.RPT_VIEWER, "attached-message", Locator.byCss("div.message-card.attached")),
+	RPT_ATTACHED_MESSAGE_SHOW_RAW(LocatorRegistry.RPT_VIEWER, "attached-message-show-raw",
+			Locator.byCss("div.message-card.attached div.message-card-tools__ellipsis")),
+	RPT_ATTACHED_MESSAGE_SHOW_ASCII(LocatorRegistry.RPT_VIEWER, "attached-message-show-ascii",
+			Locator.byCss("div.message-card.attached div.message-card-tools__icon.ascii")),
+	RPT_ATTACHED_MESSAGE_COPY_ALL(LocatorRegistry.RPT_VIEWER, "attached-message-copy-all",
+			Locator.byCss("div.message-card.attached div.message-card-tools__copy-all")),
+	RPT_ATTACHED_MESSAGE_RAW_TEXT(LocatorRegistry.RPT_VIEWER, "attached-message-raw-text",
+			Locator.byCss("div.message-card.attached .mc-raw__human")),
+
+	RPT_FILTER_OPEN(LocatorRegistry.RPT_VIEWER, "filter-open", Locator.byCss(".messages-window-header .filter__title")),
+	RPT_FILTER_MESSAGE_TYPE(LocatorRegistry.RPT_VIEWER, "filter-message-type",
+			Locator.byXPath("(//div[contains(@style, 'visible')]/*[@class='filter']//*[@class='filter__compound'])[2]//input")),
+	RPT_FILTER_MESSAGE_BODY(LocatorRegistry.RPT_VIEWER, "filter-message-body",
+			Locator.byXPath("(//div[contains(@style, 'visible')]/*[@class='filter']//*[@class='filter__compound'])[3]//input")),
+	RPT_FILTER_APPLY(LocatorRegistry.RPT_VIEWER, "filter-apply", Locator.byXPath("(//*[@class='filter-row__button'])[2]")),
+	RPT_MESSAGE(LocatorRegistry.RPT_VIEWER, "message", Locator.byCss("div.message-card")),
+	RPT_MESSAGE_SHOW_RAW(LocatorRegistry.RPT_VIEWER, "message-show-raw", Locator.byCss("div.message-card div.message-card-tools__ellipsis")),
+	RPT_MESSAGE_SHOW_ASCII(LocatorRegistry.RPT_VIEWER, "message-show-ascii", Locator.byCss("div.message-card div.message-card-tools__icon.ascii")),
+	RPT_MESSAGE_COPY_ALL(LocatorRegistry.RPT_VIEWER, "message-copy-all", Locator.byCss("div.message-card div.message-card-tools__copy-all")),
+	RPT_MESSAGE_RAW_TEXT(LocatorRegistry.RPT_VIEWER, "message-raw-text", Locator.byCss("div.message-card .mc-raw__human"));
+
+	private final String application;
+	private final String name;
+	private final Locator defaultLocator;
+
+	UiElement(String application, String name, Locator defaultLocator) {
+		this.application = application;
+		this.name = name;
+		this.defaultLocator = defaultLocator;
+	}
+
+	public String getApplication() {
+		return application;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Locator getDefaultLocator() {
+		return defaultLocator;
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.act.framework.wait;
+
+import com.exactpro.th2.act.ActMetrics;
+import com.exactpro.th2.act.framework.builders.web.WebBuilderManager;
+import com.exactpro.th2.act.framework.exceptions.UIFrameworkBuildingException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.exactpro.th2.act.framework.JsUtils.quote;
+
+/**
+ * Replacement for fixed {@code waitAction().seconds(n)} pauses. Polls all conditions in the browser
+ * and lets the script proceed as soon as they are satisfied. When {@code seconds} elapse the script
+ * proceeds anyway, so the worst case equals the fixed pause it replaces, unless {@link #failOnTimeout()} is set.
+ */
+public class ConditionWaitBuilder {
+
+	public static final long DEFAULT_POLL_INTERVAL = 100;
+
+	private final WebBuilderManager builderManager;
+	private final List<WaitCondition> conditions = new ArrayList<>();
+	private long pollInterval = DEFAULT_POLL_INTERVAL;
+	private int seconds;
+	private boolean failOnTimeout;
+
+	public ConditionWaitBuilder(WebBuilderManager builderManager) {
+		this.builderManager = builderManager;
+	}
+
+	public ConditionWaitBuilder until(WaitCondition... conditions) {
+		this.conditions.addAll(Arrays.asList(conditions));
+		return this;
+	}
+
+	public ConditionWaitBuilder pollInterval(long pollInterval) {
+		this.pollInterval = pollInterval;
+		return this;
+	}
+
+	public ConditionWaitBuilder seconds(int seconds) {
+		this.seconds = seconds;
+		return this;
+	}
+
+	/**
+	 * Fails the script if conditions are not satisfied in time, e.g. when it replaces {@code waitForElement}.
+	 */
+	public ConditionWaitBuilder failOnTimeout() {
+		this.failOnTimeout = true;
+		return this;
+	}
+
+	public void build() throws UIFrameworkBuildingException {
+		if (conditions.isEmpty()) {
+			throw new UIFrameworkBuildingException("At least one wait condition should be specified");
+		}
+		if (seconds <= 0) {
+			throw new UIFrameworkBuildingException("Wait upper bound should be positive");
+		}
+		if (pollInterval <= 0) {
+			throw new UIFrameworkBuildingException("Wait poll interval should be positive");
+		}
+		builderManager.executeJS().command(createScript()).build();
+		ActMetrics.WAIT_TIMEOUT.inc(seconds);
+	}
+
+	String createScript() {
+		StringBuilder sb = new StringBuilder("const conditions = [");
+		for (int i = 0; i < conditions.size(); i++) {
+			if (i > 0) {
+				sb.append(", ");
+			}
+			sb.append('(').append(conditions.get(i).getPredicateFactory()).append(")()");
+		}
+		sb.append("]; const deadline = Date.now() + ").append(seconds * 1000L).append("; ");
+		sb.append("await new Promise((resolve, reject) => { const poll = async () => { let ready; ");
+		sb.append("try { ready = (await Promise.all(conditions.map(c => c()))).every(r => r); } catch (e) { ready = false; } ");
+		sb.append("if (ready) { resolve(); } else if (Date.now() >= deadline) { ");
+		if (failOnTimeout) {
+			sb.append("reject(new Error(").append(quote("Conditions are not satisfied: " + conditions)).append(")); } ");
+		} else {
+			sb.append("resolve(); } ");
+		}
+		sb.append("else { setTimeout(poll, ").append(pollInterval).append("); } }; poll(); });");
+		return sb.toString();
+	}
+}
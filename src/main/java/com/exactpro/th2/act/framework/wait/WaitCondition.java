@@ -0,0 +1,145 @@
+/*
+ * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.act.framework.wait;
+
+import com.exactpro.th2.act.framework.locators.Locator;
+
+import static com.exactpro.th2.act.framework.JsUtils.quote;
+
+/**
+ * Readiness condition evaluated in the browser by {@link ConditionWaitBuilder}.
+ * Each condition is a JS expression which produces a predicate function (sync or async), so stateful
+ * conditions (e.g. network quiet period) can keep their state between polls.
+ */
+public class WaitCondition {
+
+	private final String description;
+	private final String predicateFactory;
+
+	protected WaitCondition(String description, String predicateFactory) {
+		this.description = description;
+		this.predicateFactory = predicateFactory;
+	}
+
+	public String getDescription() {
+		return description;
+	}
+
+	String getPredicateFactory() {
+		return predicateFactory;
+	}
+
+	@Override
+	public String toString() {
+		return description;
+	}
+
+	public static WaitCondition elementPresent(String xpath) {
+		return elementPresent(Locator.byXPath(xpath));
+	}
+
+	public static WaitCondition elementPresent(Locator locator) {
+		return new WaitCondition("element " + locator + " is present",
+				"() => () => " + locator.toJsNode() + " != null");
+	}
+
+	/**
+	 * Is satisfied when the link is present and its resolved {@code href} differs from {@code previousHref}.
+	 * @param previousHref resolved url of the previous link or {@code null} if any link is accepted
+	 */
+	public static WaitCondition linkChanged(Locator link, String previousHref) {
+		return new WaitCondition("link " + link + " is present" + (previousHref == null ? "" : " and differs from " + previousHref),
+				"() => () => { const link = " + link.toJsNode() + "; "
+						+ "return link != null && link.href !== " + (previousHref == null ? "null" : quote(previousHref)) + "; }");
+	}
+
+	public static WaitCondition selectOption(Locator select, String optionText) {
+		return new WaitCondition("select " + select + " has option " + optionText,
+				String.format("() => () => { const s = %s; "
+								+ "return s != null && Array.from(s.options).some(o => o.text === %s); }",
+						select.toJsNode(), quote(optionText)));
+	}
+
+	public static WaitCondition selectValue(Locator select, String optionText) {
+		return new WaitCondition("select " + select + " has value " + optionText,
+				String.format("() => () => { const s = %s; "
+								+ "return s != null && s.selectedIndex >= 0 && s.options[s.selectedIndex].text === %s; }",
+						select.toJsNode(), quote(optionText)));
+	}
+
+	public static WaitCondition documentReady() {
+		return new WaitCondition("document is loaded", "() => () => document.readyState === 'complete'");
+	}
+
+	/** Expression of the act-ui (monaco) editor models, the editor has one model when it is loaded */
+	private static final String EDITOR_MODELS = "(window.monaco && window.monaco.editor ? window.monaco.editor.getModels() : [])";
+
+	/**
+	 * Script which saves content of the editor, so {@link #editorContentChanged()} can detect that a new
+	 * content (e.g. message template) is loaded. Should be executed before the action which loads the content.
+	 */
+	public static final String SAVE_EDITOR_CONTENT_SCRIPT = "const models = " + EDITOR_MODELS + "; "
+			+ "window.__th2EditorContent = models.length === 1 ? models[0].getValue() : null;";
+
+	/**
+	 * Is satisfied when the editor is loaded and its content is not empty and differs from the content saved
+	 * by {@link #SAVE_EDITOR_CONTENT_SCRIPT}. Any non-empty content is accepted if nothing was saved.
+	 */
+	public static WaitCondition editorContentChanged() {
+		return new WaitCondition("editor content is loaded",
+				"() => () => { const models = " + EDITOR_MODELS + "; "
+						+ "if (models.length !== 1) { return false; } "
+						+ "const value = models[0].getValue(); "
+						+ "return value.trim().length > 0 && value !== window.__th2EditorContent; }");
+	}
+
+	/**
+	 * Is satisfied when the document is loaded, no fetch or XHR request is pending and no request or resource
+	 * has finished for {@code quietMillis}. Requests are counted by wrappers of {@code fetch} and
+	 * {@code XMLHttpRequest} installed by the first evaluation on the page, so requests started earlier are seen
+	 * only when they finish. Finished resources are tracked by {@code PerformanceObserver}.
+	 */
+	public static WaitCondition networkQuiet(long quietMillis) {
+		return new WaitCondition("network is quiet for " + quietMillis + " ms",
+				"() => { if (window.__th2Requests == null) { "
+						+ "const requests = window.__th2Requests = { pending: 0, finished: 0 }; "
+						+ "const done = () => { requests.pending--; requests.finished = Date.now(); }; "
+						+ "const fetch = window.fetch; "
+						+ "if (fetch) { window.fetch = function () { requests.pending++; "
+						+ "try { return fetch.apply(this, arguments).finally(done); } catch (e) { done(); throw e; } }; } "
+						+ "const send = XMLHttpRequest.prototype.send; "
+						+ "XMLHttpRequest.prototype.send = function () { requests.pending++; this.addEventListener('loadend', done); "
+						+ "try { return send.apply(this, arguments); } catch (e) { this.removeEventListener('loadend', done); done(); throw e; } }; } "
+						+ "const requests = window.__th2Requests; "
+						+ "let since = Date.now(); "
+						+ "const observer = new PerformanceObserver(() => { since = Date.now(); }); "
+						+ "observer.observe({ type: 'resource' }); "
+						+ "return () => { const quiet = document.readyState === 'complete' && requests.pending <= 0 "
+						+ "&& Date.now() - Math.max(since, requests.finished) >= " + quietMillis + "; "
+						+ "if (quiet) { observer.disconnect(); } "
+						+ "return quiet; }; }");
+	}
+
+	/**
+	 * Is satisfied when the clipboard contains any text. The clipboard should be cleared before
+	 * the copy action, otherwise stale content satisfies the condition immediately.
+	 */
+	public static WaitCondition clipboardFilled() {
+		return new WaitCondition("clipboard is filled",
+				"() => async () => (await navigator.clipboard.readText()).length > 0");
+	}
+}
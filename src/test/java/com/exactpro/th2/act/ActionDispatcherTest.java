@@ -0,0 +1,132 @@
+/*
+ * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.act;
+
+import com.exactpro.th2.act.grpc.hand.RhSessionID;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ActionDispatcherTest {
+
+	private static final RhSessionID SESSION = RhSessionID.newBuilder().setId("session").build();
+
+	private final ActionDispatcher dispatcher = new ActionDispatcher(Executors.newFixedThreadPool(2), 2, 1);
+
+	@After
+	public void tearDown() throws InterruptedException {
+		dispatcher.close();
+	}
+
+	@Test
+	public void serializesActionsOnSession() throws Exception {
+		List<String> events = new CopyOnWriteArrayList<>();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<Void> first = dispatcher.dispatch(SESSION, () -> {
+			events.add("first started");
+			started.countDown();
+			await(release);
+			events.add("first finished");
+		});
+		await(started);
+		CompletableFuture<Void> second = dispatcher.dispatch(SESSION, () -> events.add("second"));
+		release.countDown();
+		CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+		assertEquals(List.of("first started", "first finished", "second"), events);
+	}
+
+	@Test
+	public void rejectsActionsOverSessionLimit() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<Void> running = dispatcher.dispatch(SESSION, () -> {
+			started.countDown();
+			await(release);
+		});
+		await(started);
+		CompletableFuture<Void> queued = dispatcher.dispatch(SESSION, () -> {});
+		assertRejected(dispatcher.dispatch(SESSION, () -> {}));
+		release.countDown();
+		CompletableFuture.allOf(running, queued).get(5, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void countsActionsWaitingForSessionInTotalLimit() throws Exception {
+		CompletableFuture<RhSessionID> lease = new CompletableFuture<>();
+		boolean[] executed = {false};
+		CompletableFuture<Void> pooled = dispatcher.dispatch(() -> lease, sessionID -> executed[0] = SESSION.equals(sessionID));
+		CompletableFuture<Void> other = dispatcher.dispatch(() -> new CompletableFuture<>(), sessionID -> {});
+		boolean[] requested = {false};
+		assertRejected(dispatcher.dispatch(() -> {
+			requested[0] = true;
+			return CompletableFuture.completedFuture(SESSION);
+		}, sessionID -> {}));
+		assertFalse("session is requested for rejected action", requested[0]);
+
+		lease.complete(SESSION);
+		pooled.get(5, TimeUnit.SECONDS);
+		assertTrue(executed[0]);
+		other.cancel(false);
+	}
+
+	@Test
+	public void failsIfSessionIsNotObtained() throws InterruptedException {
+		IllegalStateException error = new IllegalStateException("no session");
+		try {
+			dispatcher.dispatch(() -> CompletableFuture.failedFuture(error), sessionID -> fail("action is executed")).get(5, TimeUnit.SECONDS);
+			fail("action is not failed");
+		} catch (ExecutionException e) {
+			assertEquals(error, e.getCause());
+		} catch (Exception e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	private static void assertRejected(CompletableFuture<Void> future) throws InterruptedException {
+		try {
+			future.get(5, TimeUnit.SECONDS);
+			fail("action is not rejected");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof RejectedExecutionException);
+		} catch (Exception e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			assertTrue(latch.await(5, TimeUnit.SECONDS));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new AssertionError(e);
+		}
+	}
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.act;
+
+import com.exactpro.th2.common.event.Event;
+import com.exactpro.th2.common.grpc.EventBatch;
+import com.exactpro.th2.common.grpc.EventID;
+import com.exactpro.th2.common.schema.message.MessageRouter;
+import org.junit.After;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class EventPublisherTest {
+
+	private static final EventID PARENT = EventID.newBuilder().setId("parent").build();
+
+	private final BlockingQueue<EventBatch> batches = new LinkedBlockingQueue<>();
+	private final List<String> senders = new CopyOnWriteArrayList<>();
+	private final CountDownLatch publisherSending = new CountDownLatch(1);
+	private volatile CountDownLatch publisherRelease = new CountDownLatch(0);
+	private EventPublisher publisher;
+
+	@After
+	public void tearDown() throws InterruptedException {
+		publisherRelease.countDown();
+		if (publisher != null) {
+			publisher.close();
+		}
+	}
+
+	@Test
+	public void sendsFullBatch() throws Exception {
+		publisher = new EventPublisher(router(), 3, 60_000, 10);
+		for (int i = 0; i < 3; i++) {
+			publish("event " + i);
+		}
+		EventBatch batch = batches.poll(5, TimeUnit.SECONDS);
+		assertNotNull("Full batch is not sent", batch);
+		assertEquals(PARENT, batch.getParentEventId());
+		assertEquals(3, batch.getEventsCount());
+	}
+
+	@Test
+	public void sendsBatchAfterFlushInterval() throws Exception {
+		publisher = new EventPublisher(router(), 100, 100, 10);
+		publish("event");
+		EventBatch batch = batches.poll(5, TimeUnit.SECONDS);
+		assertNotNull("Batch is not sent after flush interval", batch);
+		assertEquals(1, batch.getEventsCount());
+	}
+
+	@Test
+	public void sendsByCallerThreadWhenQueueIsFull() throws Exception {
+		publisherRelease = new CountDownLatch(1);
+		publisher = new EventPublisher(router(), 1, 60_000, 1);
+		publish("taken by publisher");
+		assertTrue(publisherSending.await(5, TimeUnit.SECONDS));
+		publish("queued");
+		publish("sent by caller");
+		assertEquals(List.of(Thread.currentThread().getName()), senders.subList(1, senders.size()));
+		assertEquals("sent by caller", batches.poll(5, TimeUnit.SECONDS).getEvents(0).getName());
+	}
+
+	@Test
+	public void sendsQueuedEventsOnClose() throws Exception {
+		publisher = new EventPublisher(router(), 100, 60_000, 10);
+		for (int i = 0; i < 5; i++) {
+			publish("event " + i);
+		}
+		long start = System.nanoTime();
+		publisher.close();
+		publisher = null;
+		assertTrue("Publisher waited for flush interval", System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+		assertEquals(5, batches.stream().mapToInt(EventBatch::getEventsCount).sum());
+	}
+
+	private void publish(String name) throws Exception {
+		publisher.publish(PARENT, Event.start().endTimestamp().name(name).type("Test"));
+	}
+
+	@SuppressWarnings("unchecked")
+	private MessageRouter<EventBatch> router() {
+		return (MessageRouter<EventBatch>) Proxy.newProxyInstance(MessageRouter.class.getClassLoader(),
+				new Class<?>[] {MessageRouter.class}, (proxy, method, args) -> {
+					if (method.getName().equals("send")) {
+						senders.add(Thread.currentThread().getName());
+						if (Thread.currentThread().getName().equals("event-publisher")) {
+							publisherSending.countDown();
+							publisherRelease.await();
+						}
+						batches.add((EventBatch) args[0]);
+					}
+					return null;
+				});
+	}
+}
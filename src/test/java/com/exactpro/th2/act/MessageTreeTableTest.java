@@ -0,0 +1,161 @@
+/*
+ * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exactpro.th2.act;
+
+import com.exactpro.th2.common.grpc.ListValue;
+import com.exactpro.th2.common.grpc.Message;
+import com.exactpro.th2.common.grpc.Value;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class MessageTreeTableTest {
+
+	private static final String MARKER = "<truncated>";
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	@Test
+	public void writesSimpleFieldsLikeTreeTable() throws Exception {
+		Message message = Message.newBuilder()
+				.putFields("ClOrdID", simple("ORD1"))
+				.putFields("Price", simple("34"))
+				.build();
+
+		assertSameAsTreeTable(message);
+	}
+
+	@Test
+	public void writesNestedMessagesAndListsLikeTreeTable() throws Exception {
+		Message party = Message.newBuilder()
+				.putFields("PartyID", simple("P1"))
+				.putFields("PartyRole", simple("76"))
+				.build();
+		Message message = Message.newBuilder()
+				.putFields("ClOrdID", simple("ORD1"))
+				.putFields("TradingParty", Value.newBuilder().setMessageValue(Message.newBuilder()
+						.putFields("NoPartyIDs", list(Value.newBuilder().setMessageValue(party).build(), simple("plain")))
+						.putFields("Comment", simple("nested"))).build())
+				.putFields("Empty", list())
+				.putFields("Side", simple("1"))
+				.build();
+
+		assertSameAsTreeTable(message);
+	}
+
+	@Test
+	public void replacesRowsAfterLimit() throws Exception {
+		Message message = Message.newBuilder()
+				.putFields("A", simple("1"))
+				.putFields("B", simple("2"))
+				.putFields("C", simple("3"))
+				.build();
+
+		ObjectNode expected = treeTable();
+		rows(expected).set("A", row("1"));
+		rows(expected).set("B", row("2"));
+		rows(expected).set("...", row(MARKER));
+		assertEquals(expected, write(message, 2, 10));
+	}
+
+	@Test
+	public void replacesRowsAfterLimitInNestedLevel() throws Exception {
+		Message message = Message.newBuilder()
+				.putFields("A", simple("1"))
+				.putFields("B", list(simple("x"), simple("y"), simple("z")))
+				.putFields("C", simple("3"))
+				.build();
+
+		ObjectNode expected = treeTable();
+		rows(expected).set("A", row("1"));
+		ObjectNode collection = collection();
+		rows(collection).set("0", row("x"));
+		rows(collection).set("...", row(MARKER));
+		rows(expected).set("B", collection);
+		assertEquals(expected, write(message, 3, 10));
+	}
+
+	@Test
+	public void replacesLevelsDeeperThanLimit() throws Exception {
+		Message message = Message.newBuilder()
+				.putFields("A", simple("1"))
+				.putFields("B", Value.newBuilder().setMessageValue(Message.newBuilder()
+						.putFields("C", simple("2"))
+						.putFields("D", list(simple("3")))).build())
+				.build();
+
+		ObjectNode topLevelOnly = treeTable();
+		rows(topLevelOnly).set("A", row("1"));
+		rows(topLevelOnly).set("B", row(MARKER));
+		assertEquals(topLevelOnly, write(message, 100, 1));
+
+		ObjectNode twoLevels = treeTable();
+		rows(twoLevels).set("A", row("1"));
+		ObjectNode collection = collection();
+		rows(collection).set("C", row("2"));
+		rows(collection).set("D", row(MARKER));
+		rows(twoLevels).set("B", collection);
+		assertEquals(twoLevels, write(message, 100, 2));
+	}
+
+	private void assertSameAsTreeTable(Message message) throws Exception {
+		JsonNode expected = mapper.readTree(mapper.writeValueAsString(EventUtils.toTreeTable(message)));
+		assertEquals(expected, write(message, Integer.MAX_VALUE, Integer.MAX_VALUE));
+	}
+
+	private JsonNode write(Message message, int maxRows, int maxDepth) throws Exception {
+		return mapper.readTree(mapper.writeValueAsString(EventUtils.toTreeTableBody(message, maxRows, maxDepth, MARKER)));
+	}
+
+	private ObjectNode treeTable() {
+		ObjectNode node = mapper.createObjectNode().put("type", "treeTable");
+		node.putObject("rows");
+		return node;
+	}
+
+	private ObjectNode collection() {
+		ObjectNode node = mapper.createObjectNode().put("type", "collection");
+		node.putObject("rows");
+		return node;
+	}
+
+	private ObjectNode row(String value) {
+		ObjectNode node = mapper.createObjectNode().put("type", "row");
+		node.putObject("columns").put("fieldValue", value);
+		return node;
+	}
+
+	private static ObjectNode rows(ObjectNode node) {
+		return (ObjectNode) node.get("rows");
+	}
+
+	private static Value simple(String value) {
+		return Value.newBuilder().setSimpleValue(value).build();
+	}
+
+	private static Value list(Value... values) {
+		ListValue.Builder list = ListValue.newBuilder();
+		for (Value value : values) {
+			list.addValues(value);
+		}
+		return Value.newBuilder().setListValue(list).build();
+	}
+}
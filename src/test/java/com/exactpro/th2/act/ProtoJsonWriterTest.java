@@ -0,0 +1,116 @@
+/*
+ * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exactpro.th2.act;
+
+import com.exactpro.th2.act.grpc.NewOrderSingleParams.NewOrderSingleBody;
+import com.exactpro.th2.act.grpc.NewOrderSingleParams.NoPartyID;
+import com.exactpro.th2.act.grpc.NewOrderSingleParams.TradingParty;
+import com.google.protobuf.DescriptorProtos.DescriptorProto;
+import com.google.protobuf.DescriptorProtos.FieldDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.FileDescriptor;
+import com.google.protobuf.DynamicMessage;
+import com.google.protobuf.Message;
+import com.google.protobuf.util.JsonFormat;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ProtoJsonWriterTest {
+
+	private static final JsonFormat.Printer PRINTER = JsonFormat.printer()
+			.preservingProtoFieldNames()
+			.omittingInsignificantWhitespace();
+
+	@Test
+	public void writesOnlySetFields() throws Exception {
+		NewOrderSingleBody body = NewOrderSingleBody.newBuilder()
+				.setSecurityID("INSTR1")
+				.setSide("Buy")
+				.setOrderQty(100)
+				.setPrice(25)
+				.build();
+
+		assertMatchesJsonFormat(body);
+		assertEquals("{\"SecurityID\":\"INSTR1\",\"Side\":\"Buy\",\"OrderQty\":100,\"Price\":25}",
+				ProtoJsonWriter.toJson(body));
+	}
+
+	@Test
+	public void writesEmptyMessage() throws Exception {
+		assertEquals("{}", ProtoJsonWriter.toJson(NewOrderSingleBody.getDefaultInstance()));
+	}
+
+	@Test
+	public void writesNestedAndRepeatedFields() throws Exception {
+		NewOrderSingleBody body = NewOrderSingleBody.newBuilder()
+				.setSecurityID("INSTR1")
+				.setOrderQty(100)
+				.setClOrdID("ORD1")
+				.setTradingParty(TradingParty.newBuilder()
+						.addNoPartyIDs(NoPartyID.newBuilder().setPartyID("P1").setPartyIDSource("D").setPartyRole(76))
+						.addNoPartyIDs(NoPartyID.newBuilder().setPartyID("P2").setPartyRole(3)))
+				.build();
+
+		assertMatchesJsonFormat(body);
+	}
+
+	@Test
+	public void writesEmptyNestedMessage() throws Exception {
+		NewOrderSingleBody body = NewOrderSingleBody.newBuilder()
+				.setTradingParty(TradingParty.getDefaultInstance())
+				.build();
+
+		assertMatchesJsonFormat(body);
+		assertEquals("{\"TradingParty\":{}}", ProtoJsonWriter.toJson(body));
+	}
+
+	@Test
+	public void writesFieldsInNumberOrder() throws Exception {
+		Descriptor descriptor = createDescriptor(
+				FieldDescriptorProto.newBuilder().setName("second").setNumber(2)
+						.setType(FieldDescriptorProto.Type.TYPE_STRING),
+				FieldDescriptorProto.newBuilder().setName("first").setNumber(1)
+						.setType(FieldDescriptorProto.Type.TYPE_INT32));
+		DynamicMessage message = DynamicMessage.newBuilder(descriptor)
+				.setField(descriptor.findFieldByName("second"), "value")
+				.setField(descriptor.findFieldByName("first"), 1)
+				.build();
+
+		assertMatchesJsonFormat(message);
+		assertEquals("{\"first\":1,\"second\":\"value\"}", ProtoJsonWriter.toJson(message));
+	}
+
+	private static void assertMatchesJsonFormat(Message message) throws Exception {
+		assertEquals(PRINTER.print(message), ProtoJsonWriter.toJson(message));
+	}
+
+	private static Descriptor createDescriptor(FieldDescriptorProto.Builder... fields) throws Exception {
+		DescriptorProto.Builder type = DescriptorProto.newBuilder().setName("Unordered");
+		for (FieldDescriptorProto.Builder field : fields) {
+			type.addField(field.setLabel(FieldDescriptorProto.Label.LABEL_OPTIONAL));
+		}
+		FileDescriptorProto file = FileDescriptorProto.newBuilder()
+				.setName("unordered.proto")
+				.setSyntax("proto3")
+				.addMessageType(type)
+				.build();
+		return FileDescriptor.buildFrom(file, new FileDescriptor[0]).findMessageTypeByName("Unordered");
+	}
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exactpro.th2.act;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ReportDataProviderTest {
+
+	private static final String EVENT_ID = "event:1";
+	private static final String MESSAGE_ID = "session:first:1";
+	private static final String RAW_MESSAGE = "8=FIXT.1.1\u00019=5\u000135=D\u0001";
+
+	/** responses by request path, a missing path answers 404 */
+	private final Map<String, Response> responses = new ConcurrentHashMap<>();
+	private final CountDownLatch release = new CountDownLatch(1);
+	private ExecutorService executor;
+	private HttpServer server;
+	private ReportDataProvider provider;
+
+	@Before
+	public void setUp() throws IOException {
+		executor = Executors.newCachedThreadPool();
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		server.createContext("/", this::handle);
+		server.setExecutor(executor);
+		server.start();
+		provider = new ReportDataProvider("http://127.0.0.1:" + server.getAddress().getPort(), Duration.ofMillis(500));
+	}
+
+	@After
+	public void tearDown() {
+		release.countDown();
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void readsEventIdFromViewerUrl() {
+		assertEquals("abc:1", ReportDataProvider.getEventId("http://host/?eventId=abc%3A1&other=1"));
+		assertEquals("abc", ReportDataProvider.getEventId("http://host/?filter=x&selectedEvent=abc"));
+		assertNull(ReportDataProvider.getEventId("http://host/?eventId="));
+		assertNull(ReportDataProvider.getEventId("http://host/?other=abc"));
+		assertNull(ReportDataProvider.getEventId("http://host/"));
+	}
+
+	@Test
+	public void returnsAttachedRawMessage() throws Exception {
+		responses.put("/event/event%3A1", new Response(200, "{\"attachedMessageIds\":[\"" + MESSAGE_ID + "\"]}"));
+		responses.put("/message/session%3Afirst%3A1", new Response(200,
+				"{\"bodyBase64\":\"" + Base64.getEncoder().encodeToString(RAW_MESSAGE.getBytes(StandardCharsets.UTF_8)) + "\"}"));
+
+		assertEquals(RAW_MESSAGE, provider.findAttachedRawMessage(viewerUrl()));
+	}
+
+	@Test
+	public void returnsNullWithoutEventId() throws Exception {
+		assertNull(provider.findAttachedRawMessage("http://viewer/?other=1"));
+	}
+
+	@Test
+	public void returnsNullWithoutAttachedMessages() throws Exception {
+		responses.put("/event/event%3A1", new Response(200, "{\"attachedMessageIds\":[]}"));
+
+		assertNull(provider.findAttachedRawMessage(viewerUrl()));
+	}
+
+	@Test
+	public void failsIfEventIsNotFound() throws Exception {
+		try {
+			provider.findAttachedRawMessage(viewerUrl());
+			fail("IOException expected");
+		} catch (IOException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("404"));
+		}
+	}
+
+	@Test
+	public void failsOnServerError() throws Exception {
+		responses.put("/event/event%3A1", new Response(200, "{\"attachedMessageIds\":[\"" + MESSAGE_ID + "\"]}"));
+		responses.put("/message/session%3Afirst%3A1", new Response(500, "error"));
+
+		try {
+			provider.findAttachedRawMessage(viewerUrl());
+			fail("IOException expected");
+		} catch (IOException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("500"));
+		}
+	}
+
+	@Test
+	public void failsIfMessageHasNoRawBody() throws Exception {
+		responses.put("/event/event%3A1", new Response(200, "{\"attachedMessageIds\":[\"" + MESSAGE_ID + "\"]}"));
+		responses.put("/message/session%3Afirst%3A1", new Response(200, "{}"));
+
+		try {
+			provider.findAttachedRawMessage(viewerUrl());
+			fail("IOException expected");
+		} catch (IOException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains(MESSAGE_ID));
+		}
+	}
+
+	@Test(expected = HttpTimeoutException.class)
+	public void failsOnTimeout() throws Exception {
+		responses.put("/event/event%3A1", new Response(-1, null));
+
+		provider.findAttachedRawMessage(viewerUrl());
+	}
+
+	private static String viewerUrl() {
+		return "http://viewer/?eventId=" + EVENT_ID;
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		try {
+			Response response = responses.get(exchange.getRequestURI().getRawPath());
+			if (response == null) {
+				exchange.sendResponseHeaders(404, -1);
+				return;
+			}
+			if (response.status < 0) {
+				release.await();
+				return;
+			}
+			byte[] body = response.body.getBytes(StandardCharsets.UTF_8);
+			exchange.sendResponseHeaders(response.status, body.length);
+			try (OutputStream output = exchange.getResponseBody()) {
+				output.write(body);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			exchange.close();
+		}
+	}
+
+	private static class Response {
+		final int status;
+		final String body;
+
+		Response(int status, String body) {
+			this.status = status;
+			this.body = body;
+		}
+	}
+}
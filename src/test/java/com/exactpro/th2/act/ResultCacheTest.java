@@ -0,0 +1,62 @@
+/*
+ * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.act;
+
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ResultCacheTest {
+
+	private static final Map<String, String> DATA = Map.of("key", "value");
+
+	@Test
+	public void evictsLeastRecentlyUsedEntry() {
+		ResultCache cache = new ResultCache(2, 60_000);
+		cache.put("first", DATA);
+		cache.put("second", DATA);
+		assertEquals(DATA, cache.get("first"));
+		cache.put("third", DATA);
+		assertEquals(2, cache.size());
+		assertEquals(DATA, cache.get("first"));
+		assertNull(cache.get("second"));
+		assertEquals(DATA, cache.get("third"));
+	}
+
+	@Test
+	public void expiresEntriesAfterTtl() throws InterruptedException {
+		ResultCache cache = new ResultCache(2, 50);
+		cache.put("key", DATA);
+		assertEquals(DATA, cache.get("key"));
+		Thread.sleep(100);
+		assertNull(cache.get("key"));
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void readingDoesNotProlongTtl() throws InterruptedException {
+		ResultCache cache = new ResultCache(2, 100);
+		cache.put("key", DATA);
+		Thread.sleep(60);
+		assertEquals(DATA, cache.get("key"));
+		Thread.sleep(60);
+		assertNull(cache.get("key"));
+	}
+}
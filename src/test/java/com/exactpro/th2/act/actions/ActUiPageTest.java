@@ -0,0 +1,66 @@
+/*
+ * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exactpro.th2.act.actions;
+
+import com.exactpro.th2.act.grpc.hand.ResultDetails;
+import com.exactpro.th2.act.grpc.hand.RhBatchResponse;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ActUiPageTest {
+
+	private static final String URL = "http://rpt-viewer/?eventId=1";
+
+	@Test
+	public void findsLinkAmongOtherResults() {
+		RhBatchResponse response = response(result("", ActUiPage.EDITOR_FILLED), result("", link(URL)),
+				result("", ActUiPage.PAGE_FINGERPRINT_PREFIX + URL), result("", "screenshot"));
+
+		assertEquals(URL, ActUiPage.getResultUrl(response));
+		assertEquals(URL, ActUiPage.findResult(response, ActUiPage.PAGE_FINGERPRINT_PREFIX));
+	}
+
+	@Test
+	public void keepsActionId() {
+		RhBatchResponse response = response(result("", ActUiPage.EDITOR_FILLED), result("link", link(URL)));
+
+		assertEquals("link=" + URL, ActUiPage.getResultUrl(response));
+	}
+
+	@Test
+	public void returnsNullWithoutLink() {
+		assertNull(ActUiPage.getResultUrl(response()));
+		assertNull(ActUiPage.getResultUrl(response(result("", URL), result("", "screenshot"))));
+	}
+
+	private static RhBatchResponse response(ResultDetails... results) {
+		return RhBatchResponse.newBuilder().addAllResult(List.of(results)).build();
+	}
+
+	private static String link(String url) {
+		return ActUiPage.RESULT_LINK_PREFIX + url;
+	}
+
+	private static ResultDetails result(String actionId, String value) {
+		return ResultDetails.newBuilder().setActionId(actionId).setResult(value).build();
+	}
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.act.framework;
+
+import com.exactpro.th2.act.ActConnections;
+import com.exactpro.th2.act.framework.exceptions.UIFrameworkException;
+import com.exactpro.th2.act.framework.locators.UiElement;
+import com.exactpro.th2.act.grpc.hand.RhActionsBatch;
+import com.exactpro.th2.act.grpc.hand.RhBatchResponse;
+import com.exactpro.th2.act.grpc.hand.RhSessionID;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TestUIFrameworkContextTest {
+
+	private static final RhSessionID SESSION = RhSessionID.newBuilder().setId("session").build();
+	private static final String SEND_BUTTON = UiElement.ACT_SEND_BUTTON.getDefaultLocator().getValue();
+
+	private final List<RhActionsBatch> batches = new CopyOnWriteArrayList<>();
+	private final TestUIFrameworkContext context = new TestUIFrameworkContext(SESSION, new SendingFailureHandExecutor());
+
+	@Test
+	public void discardsActionsOfFailedStep() throws UIFrameworkException {
+		TestUIFrameworkContext sendingStep = context.newStep();
+		sendingStep.createBuilderManager().click().locator(UiElement.ACT_SEND_BUTTON.getDefaultLocator().toWebLocator()).build();
+		try {
+			sendingStep.submit("Filling message body and sending message");
+			fail("Sending step should fail");
+		} catch (UIFrameworkException | StatusRuntimeException e) {
+			// th2-hand is unavailable
+		}
+
+		TestUIFrameworkContext checkingStep = context.newStep();
+		checkingStep.createBuilderManager().executeJS().command("return location.href").build();
+		checkingStep.submit("Checking sending result");
+
+		assertEquals(2, batches.size());
+		assertTrue(clicksSendButton(batches.get(0)));
+		assertFalse("Send button is clicked again", clicksSendButton(batches.get(1)));
+	}
+
+	@Test
+	public void collectsPipelinedStepsInOneContext() {
+		context.startPipeline();
+		assertSame(context, context.newStep());
+	}
+
+	private static boolean clicksSendButton(RhActionsBatch batch) {
+		return batch.getActionList().stream().anyMatch(action -> action.getParamsMap().containsValue(SEND_BUTTON));
+	}
+
+	/**
+	 * Fails the batch which clicks the send button as if th2-hand became unavailable.
+	 */
+	private class SendingFailureHandExecutor extends HandExecutor {
+
+		SendingFailureHandExecutor() {
+			super((ActConnections<?>) null);
+		}
+
+		@Override
+		public RhBatchResponse execute(RhActionsBatch actionsBatch) {
+			batches.add(actionsBatch);
+			if (clicksSendButton(actionsBatch)) {
+				throw Status.UNAVAILABLE.withDescription("th2-hand is unavailable").asRuntimeException();
+			}
+			return RhBatchResponse.newBuilder().setScriptStatus("SUCCESS").build();
+		}
+	}
+}
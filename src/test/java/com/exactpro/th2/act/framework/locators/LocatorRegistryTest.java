@@ -0,0 +1,84 @@
+/*
+ * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.exactpro.th2.act.framework.locators;
+
+import com.exactpro.th2.act.LocatorConfiguration;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class LocatorRegistryTest {
+
+	@Test
+	public void usesDefaultLocatorsWithoutConfiguration() {
+		LocatorRegistry registry = new LocatorRegistry(Map.of(), Map.of());
+
+		assertSame(UiElement.ACT_SEND_BUTTON.getDefaultLocator(), registry.get(UiElement.ACT_SEND_BUTTON));
+	}
+
+	@Test
+	public void prefersConfiguredVersion() {
+		LocatorRegistry registry = new LocatorRegistry(Map.of(LocatorRegistry.ACT_UI, Map.of(
+				"1.0", Map.of("send-button", locator(null, "#send", null, null)),
+				LocatorRegistry.DEFAULT_VERSION, Map.of("send-button", locator("send", null, null, null)))),
+				Map.of(LocatorRegistry.ACT_UI, "1.0"));
+
+		assertEquals("css: #send", registry.get(UiElement.ACT_SEND_BUTTON).toString());
+	}
+
+	@Test
+	public void searchesInContainer() {
+		LocatorRegistry registry = new LocatorRegistry(Map.of(LocatorRegistry.RPT_VIEWER, Map.of(LocatorRegistry.DEFAULT_VERSION, Map.of(
+				"attached-message", locator(null, "div.message-card", null, ".messages"),
+				"filter-apply", locator(null, null, "button[2]", "//div[@class='filter']")))),
+				Map.of());
+
+		assertEquals("css: .messages div.message-card", registry.get(UiElement.RPT_ATTACHED_MESSAGE).toString());
+		assertEquals("xpath: //div[@class='filter']/button[2]", registry.get(UiElement.RPT_FILTER_APPLY).toString());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsIdInContainer() {
+		new LocatorRegistry(Map.of(LocatorRegistry.ACT_UI, Map.of(LocatorRegistry.DEFAULT_VERSION,
+				Map.of("send-button", locator("send", null, null, ".app__buttons")))), Map.of());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsXPathInParenthesesInContainer() {
+		new LocatorRegistry(Map.of(LocatorRegistry.RPT_VIEWER, Map.of(LocatorRegistry.DEFAULT_VERSION,
+				Map.of("filter-apply", locator(null, null, "(//button)[2]", "//div[@class='filter']")))), Map.of());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsEmptyLocator() {
+		new LocatorRegistry(Map.of(LocatorRegistry.ACT_UI, Map.of(LocatorRegistry.DEFAULT_VERSION,
+				Map.of("send-button", locator(null, null, null, null)))), Map.of());
+	}
+
+	private static LocatorConfiguration locator(String id, String css, String xpath, String container) {
+		LocatorConfiguration configuration = new LocatorConfiguration();
+		configuration.setId(id);
+		configuration.setCss(css);
+		configuration.setXpath(xpath);
+		configuration.setContainer(container);
+		return configuration;
+	}
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2020-2021 Exactpro (Exactpro Systems Limited)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.exactpro.th2.act.framework.wait;
+
+import com.exactpro.th2.act.framework.exceptions.UIFrameworkBuildingException;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ConditionWaitBuilderTest {
+
+	@Test(expected = UIFrameworkBuildingException.class)
+	public void rejectsEmptyConditions() throws UIFrameworkBuildingException {
+		new ConditionWaitBuilder(null).seconds(1).build();
+	}
+
+	@Test(expected = UIFrameworkBuildingException.class)
+	public void rejectsNonPositiveSeconds() throws UIFrameworkBuildingException {
+		new ConditionWaitBuilder(null).until(WaitCondition.documentReady()).seconds(0).build();
+	}
+
+	@Test(expected = UIFrameworkBuildingException.class)
+	public void rejectsNonPositivePollInterval() throws UIFrameworkBuildingException {
+		new ConditionWaitBuilder(null).until(WaitCondition.documentReady()).seconds(1).pollInterval(0).build();
+	}
+
+	@Test
+	public void describesConditions() {
+		assertEquals("network is quiet for 300 ms", WaitCondition.networkQuiet(300).toString());
+	}
+}